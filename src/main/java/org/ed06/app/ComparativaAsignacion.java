@@ -0,0 +1,80 @@
+package org.ed06.app;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.ed06.model.EstrategiaAsignacion;
+import org.ed06.model.Habitacion;
+import org.ed06.model.Hotel;
+import org.ed06.model.Reserva;
+
+/**
+ * Clase que compara las estrategias de asignación de habitaciones reproduciendo
+ * la misma traza con cada una y midiendo ocupación, fragmentación y latencia.
+ * Si una estrategia elige una habitación que ya tiene otra estancia en esas noches,
+ * la reserva se rechaza y se cuenta como solape, así solo se puntúan reservas válidas
+ */
+public class ComparativaAsignacion {
+    private static final int HUECO_INUTILIZABLE = 2; // Huecos de 1 o 2 noches entre estancias
+
+    /**
+     * Reproduce la traza con cada estrategia y devuelve el informe en texto
+     * @param traza Traza a reproducir
+     * @return Tabla comparativa
+     * @throws InterruptedException si se interrumpe la reproducción
+     */
+    public String comparar(TrazaCarga traza) throws InterruptedException {
+        Map<String, EstrategiaAsignacion> estrategias = new LinkedHashMap<>();
+        estrategias.put("Primer ajuste", EstrategiaAsignacion.PRIMER_AJUSTE);
+        estrategias.put("Mejor ajuste", EstrategiaAsignacion.MEJOR_AJUSTE);
+        estrategias.put("Más barata", EstrategiaAsignacion.MAS_BARATA);
+
+        StringBuilder informe = new StringBuilder(String.format("%-14s %10s %10s %10s %9s %10s %10s%n",
+                "Estrategia", "Reservas", "Noches", "Huecos", "Solapes", "p50 (µs)", "p99 (µs)"));
+        for (Map.Entry<String, EstrategiaAsignacion> estrategia : estrategias.entrySet()) {
+            Hotel hotel = new Hotel("Comparativa", "Sintética", "00000000", traza.reloj());
+            EstrategiaAsignacion elegir = estrategia.getValue();
+            int[] solapes = new int[1];
+            hotel.setEstrategiaAsignacion((indice, tipo, entrada, salida) -> {
+                Habitacion habitacion = elegir.elegir(indice, tipo, entrada, salida);
+                if (habitacion != null && seSolapa(hotel, habitacion, entrada, salida)) {
+                    solapes[0]++;
+                    return null; // Se rechaza en vez de vender dos veces las mismas noches
+                }
+                return habitacion;
+            });
+            InformeCarga carga = new ReproductorCarga().reproducir(traza, hotel, 1);
+
+            long noches = 0;
+            int huecos = 0;
+            for (List<Reserva> reservas : hotel.listarReservas().values()) {
+                List<Reserva> ordenadas = new ArrayList<>(reservas);
+                ordenadas.sort(Comparator.comparing(Reserva::getFechaInicio));
+                for (int i = 0; i < ordenadas.size(); i++) {
+                    Reserva reserva = ordenadas.get(i);
+                    noches += reserva.getFechaFin().toEpochDay() - reserva.getFechaInicio().toEpochDay();
+                    if (i > 0) {
+                        long hueco = reserva.getFechaInicio().toEpochDay()
+                                - ordenadas.get(i - 1).getFechaFin().toEpochDay();
+                        if (hueco > 0 && hueco <= HUECO_INUTILIZABLE) huecos++;
+                    }
+                }
+            }
+            informe.append(String.format("%-14s %10d %10d %10d %9d %10.1f %10.1f%n", estrategia.getKey(),
+                    carga.getReservasAceptadas(), noches, huecos, solapes[0],
+                    carga.percentil(50) / 1e3, carga.percentil(99) / 1e3));
+        }
+        return informe.toString();
+    }
+
+    /**
+     * Comprueba si alguna estancia de la habitación ocupa alguna noche del rango
+     */
+    private static boolean seSolapa(Hotel hotel, Habitacion habitacion, LocalDate entrada, LocalDate salida) {
+        return entrada.isBefore(salida) && !hotel.consultarReservas().enHabitacion(habitacion.getNumero())
+                .entreFechas(entrada, salida).ejecutar().isEmpty();
+    }
+}
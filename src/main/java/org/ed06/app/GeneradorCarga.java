@@ -0,0 +1,153 @@
+package org.ed06.app;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import org.ed06.model.TipoHabitacion;
+
+/**
+ * Clase que genera trazas de carga sintéticas y reproducibles: con la misma
+ * semilla y tamaño siempre produce exactamente las mismas operaciones
+ */
+public class GeneradorCarga {
+    // Proporción de cada operación sobre 10000
+    private static final int PESO_HABITACION = 50;
+    private static final int PESO_CLIENTE = 1000;
+    private static final int PESO_RESERVA = 5500;
+    private static final int PESO_LIBERAR = 3430;
+    // El resto (20 de cada 10000) son listados
+
+    // Reservas por mes (enero a diciembre): temporada alta en verano y diciembre
+    private static final int[] PESO_MES = {4, 4, 6, 8, 8, 11, 14, 15, 9, 7, 4, 10};
+    private static final int[] PESO_TIPO = {30, 45, 10, 15}; // SIMPLE, DOBLE, SUITE, LITERAS
+    private static final double[] PRECIO_TIPO = {50, 80, 200, 35};
+
+    private static final String LETRAS_DNI = "TRWAGMYFPDXBNJZSQVHLCKE";
+    private static final String[] NOMBRES = {"Ana", "Luis", "María", "José", "Lucía", "Javier", "Carmen",
+            "Pablo", "Elena", "Sergio", "Marta", "David", "Laura", "Álvaro", "Sofía", "Diego"};
+    private static final String[] APELLIDOS = {"García", "López", "Martínez", "Sánchez", "Pérez",
+            "Gómez", "Ruiz", "Díaz", "Moreno", "Romero"};
+    private static final String[] DOMINIOS = {"correo.es", "mail.com", "empresa.org", "hotelia.net"};
+
+    private final long semilla;
+    private final LocalDate inicioTemporada;
+
+    /**
+     * Constructor del generador con el año 2026 como temporada
+     * @param semilla Semilla del generador aleatorio
+     */
+    public GeneradorCarga(long semilla) {
+        this(semilla, LocalDate.of(2026, 1, 1));
+    }
+
+    /**
+     * Constructor del generador
+     * @param semilla Semilla del generador aleatorio
+     * @param inicioTemporada Primer día del año sobre el que se reparten las reservas
+     */
+    public GeneradorCarga(long semilla, LocalDate inicioTemporada) {
+        this.semilla = semilla;
+        this.inicioTemporada = inicioTemporada;
+    }
+
+    /**
+     * Genera una traza de operaciones
+     * @param operaciones Número de operaciones de la traza
+     * @return La traza generada
+     */
+    public TrazaCarga generar(int operaciones) {
+        if (operaciones <= 0) {
+            throw new IllegalArgumentException("El número de operaciones debe ser mayor que cero");
+        }
+        SplittableRandom random = new SplittableRandom(semilla);
+        TrazaCarga traza = new TrazaCarga(operaciones, (int) (operaciones * 1.1 * PESO_CLIENTE / 10000) + 16, semilla,
+                inicioTemporada);
+        int habitaciones = 0;
+        int clientes = 0;
+        int primerDia = (int) inicioTemporada.toEpochDay();
+
+        for (int i = 0; i < operaciones; i++) {
+            int dado = random.nextInt(10000);
+            // Sin habitaciones ni clientes no hay nada que reservar: se fuerzan los registros
+            if (habitaciones == 0) {
+                dado = 0;
+            } else if (clientes == 0) {
+                dado = PESO_HABITACION;
+            } else if (clientes == traza.dnis.length && dado >= PESO_HABITACION && dado < PESO_HABITACION + PESO_CLIENTE) {
+                dado = PESO_HABITACION + PESO_CLIENTE; // Cupo de clientes agotado: se reserva en su lugar
+            }
+
+            if (dado < PESO_HABITACION) {
+                int tipo = elegir(random, PESO_TIPO);
+                traza.operaciones[i] = TrazaCarga.REGISTRAR_HABITACION;
+                traza.a[i] = tipo;
+                traza.b[i] = (int) Math.round(PRECIO_TIPO[tipo] * (0.8 + random.nextDouble() * 0.4) * 100);
+                habitaciones++;
+            } else if (dado < PESO_HABITACION + PESO_CLIENTE) {
+                rellenarCliente(traza, clientes, random);
+                traza.operaciones[i] = TrazaCarga.REGISTRAR_CLIENTE;
+                traza.a[i] = clientes;
+                traza.b[i] = random.nextInt(100) < 5 ? 1 : 0;
+                clientes++;
+            } else if (dado < PESO_HABITACION + PESO_CLIENTE + PESO_RESERVA) {
+                traza.operaciones[i] = TrazaCarga.RESERVAR;
+                traza.a[i] = 1 + random.nextInt(clientes);
+                traza.b[i] = elegir(random, PESO_TIPO);
+                traza.c[i] = primerDia + diaDeTemporada(random);
+                traza.d[i] = (short) Math.min(21, 1 + (int) (-Math.log(1 - random.nextDouble()) * 3));
+            } else if (dado < PESO_HABITACION + PESO_CLIENTE + PESO_RESERVA + PESO_LIBERAR) {
+                traza.operaciones[i] = TrazaCarga.LIBERAR;
+                traza.a[i] = 1 + random.nextInt(habitaciones);
+            } else {
+                int listado = random.nextInt(10);
+                traza.operaciones[i] = TrazaCarga.LISTAR;
+                traza.a[i] = listado < 8 ? 0 : listado - 7;
+            }
+        }
+        return traza;
+    }
+
+    /**
+     * Elige un día del año siguiendo el peso de cada mes
+     */
+    private int diaDeTemporada(SplittableRandom random) {
+        int mes = elegir(random, PESO_MES);
+        LocalDate primero = inicioTemporada.plusMonths(mes);
+        int dia = random.nextInt(primero.lengthOfMonth());
+        return (int) (primero.toEpochDay() - inicioTemporada.toEpochDay()) + dia;
+    }
+
+    /**
+     * Genera nombre, email y DNI válidos y únicos para el cliente indicado
+     */
+    private void rellenarCliente(TrazaCarga traza, int indice, SplittableRandom random) {
+        traza.nombres[indice] = NOMBRES[random.nextInt(NOMBRES.length)] + " "
+                + APELLIDOS[random.nextInt(APELLIDOS.length)];
+        traza.emails[indice] = "cliente" + indice + "@" + DOMINIOS[random.nextInt(DOMINIOS.length)];
+        // Multiplicar por un número coprimo con 10^8 es una biyección: los DNIs no se repiten
+        long numero = (indice * 7_919_317L + 12_345_678L) % 100_000_000L;
+        traza.dnis[indice] = String.format("%08d%c", numero, LETRAS_DNI.charAt((int) (numero % 23)));
+    }
+
+    /**
+     * Elige un índice con probabilidad proporcional a su peso
+     */
+    private static int elegir(SplittableRandom random, int[] pesos) {
+        int total = 0;
+        for (int peso : pesos) total += peso;
+        int valor = random.nextInt(total);
+        for (int i = 0; i < pesos.length; i++) {
+            valor -= pesos[i];
+            if (valor < 0) return i;
+        }
+        return pesos.length - 1;
+    }
+
+    /**
+     * Convierte el código de tipo de la traza en el tipo de habitación
+     * @param codigo Código guardado en la traza
+     * @return Tipo de habitación
+     */
+    static TipoHabitacion tipo(int codigo) {
+        return TipoHabitacion.values()[codigo];
+    }
+}
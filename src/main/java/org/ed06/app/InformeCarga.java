@@ -0,0 +1,93 @@
+package org.ed06.app;
+
+import java.util.Arrays;
+
+/**
+ * Clase que resume el resultado de reproducir una traza: rendimiento y percentiles de latencia
+ */
+public class InformeCarga {
+    private final int operaciones;
+    private final int hilos;
+    private final long duracionNanos;
+    private final long[] latenciasOrdenadas;
+    private final int reservasAceptadas;
+    private final int reservasRechazadas;
+    private final int errores;
+
+    /**
+     * Constructor del informe
+     * @param hilos Hilos usados en la reproducción
+     * @param duracionNanos Tiempo total de la reproducción
+     * @param latencias Latencia de cada operación en nanosegundos (se ordena en el sitio)
+     * @param reservasAceptadas Reservas que obtuvieron habitación
+     * @param reservasRechazadas Reservas que devolvieron un código de error
+     * @param errores Operaciones que lanzaron una excepción
+     */
+    InformeCarga(int hilos, long duracionNanos, long[] latencias,
+                 int reservasAceptadas, int reservasRechazadas, int errores) {
+        Arrays.sort(latencias);
+        this.operaciones = latencias.length;
+        this.hilos = hilos;
+        this.duracionNanos = duracionNanos;
+        this.latenciasOrdenadas = latencias;
+        this.reservasAceptadas = reservasAceptadas;
+        this.reservasRechazadas = reservasRechazadas;
+        this.errores = errores;
+    }
+
+    //Getters
+    public int getOperaciones() {
+        return operaciones;
+    }
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+    public int getReservasAceptadas() {
+        return reservasAceptadas;
+    }
+    public int getReservasRechazadas() {
+        return reservasRechazadas;
+    }
+    public int getErrores() {
+        return errores;
+    }
+
+    /**
+     * Calcula las operaciones por segundo
+     * @return Rendimiento de la reproducción
+     */
+    public double getOperacionesPorSegundo() {
+        return operaciones * 1e9 / Math.max(1, duracionNanos);
+    }
+
+    /**
+     * Obtiene un percentil de latencia
+     * @param percentil Percentil entre 0 y 100
+     * @return Latencia en nanosegundos
+     */
+    public long percentil(double percentil) {
+        if (latenciasOrdenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil / 100 * latenciasOrdenadas.length) - 1;
+        return latenciasOrdenadas[Math.max(0, Math.min(indice, latenciasOrdenadas.length - 1))];
+    }
+
+    /**
+     * Representa el informe en texto
+     */
+    @Override
+    public String toString() {
+        return "|------INFORME DE CARGA------|" +
+                "\n -Operaciones: " + operaciones + " (" + hilos + " hilos)" +
+                "\n -Duración: " + String.format("%.3f s", duracionNanos / 1e9) +
+                "\n -Rendimiento: " + String.format("%.0f op/s", getOperacionesPorSegundo()) +
+                "\n -Reservas: " + reservasAceptadas + " aceptadas, " + reservasRechazadas + " rechazadas" +
+                "\n -Errores: " + errores +
+                "\n -Latencia p50: " + String.format("%.1f µs", percentil(50) / 1e3) +
+                "\n -Latencia p90: " + String.format("%.1f µs", percentil(90) / 1e3) +
+                "\n -Latencia p99: " + String.format("%.1f µs", percentil(99) / 1e3) +
+                "\n -Latencia p99.9: " + String.format("%.1f µs", percentil(99.9) / 1e3) +
+                "\n -Latencia máxima: " + String.format("%.1f µs", percentil(100) / 1e3);
+    }
+}
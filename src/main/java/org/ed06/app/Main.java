@@ -1,11 +1,108 @@
 package org.ed06.app;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
 import org.ed06.model.*;
 
 /** Main limpio **/
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // "carga [operaciones] [hilos] [semilla]" reproduce una traza sintética en vez de abrir el menú
+        if (args.length > 0 && args[0].equals("carga")) {
+            ejecutarCarga(args);
+            return;
+        }
+        // "asignacion [operaciones] [semilla]" compara las estrategias de asignación con la misma traza
+        if (args.length > 0 && args[0].equals("asignacion")) {
+            int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            long semilla = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+            System.out.print(new ComparativaAsignacion().comparar(new GeneradorCarga(semilla).generar(operaciones)));
+            return;
+        }
+        // "analitica [operaciones] [semilla] [k]" reproduce una traza y muestra los k clientes que más gastan
+        if (args.length > 0 && args[0].equals("analitica")) {
+            ejecutarAnalitica(args);
+            return;
+        }
         Hotel hotel = new Hotel("Sharenton", "Calle Palmeras 159", "88888888"
         );
+        // "espera [puerto]" arranca una réplica en espera que se promueve al pulsar ENTER
+        if (args.length > 0 && args[0].equals("espera")) {
+            ejecutarReplica(hotel, args.length > 1 ? Integer.parseInt(args[1]) : 7070);
+            return;
+        }
+        // "primario [puerto]" replica todos los cambios a la réplica en espera de ese puerto local
+        if (args.length > 0 && args[0].equals("primario")) {
+            BufferEventos eventos = new BufferEventos(1 << 16, PoliticaDesbordamiento.ESPERAR);
+            hotel.setBufferEventos(eventos);
+            ReplicadorPrimario replicador = new ReplicadorPrimario(eventos,
+                    new InetSocketAddress("localhost", args.length > 1 ? Integer.parseInt(args[1]) : 7070));
+            replicador.iniciar();
+            new HotelCLI(hotel).inicio();
+            replicador.detener();
+            return;
+        }
         new HotelCLI(hotel).inicio();
     }
-}
\ No newline at end of file
+
+    /**
+     * Mantiene una réplica en espera hasta que el usuario pulsa ENTER y entonces la promueve
+     * @param hotel Hotel vacío de la réplica
+     * @param puerto Puerto local donde escucha
+     * @throws IOException si no se puede abrir el puerto
+     * @throws InterruptedException si se interrumpe la promoción
+     */
+    private static void ejecutarReplica(Hotel hotel, int puerto) throws IOException, InterruptedException {
+        ReplicaEspera replica = new ReplicaEspera(hotel, puerto);
+        replica.iniciar();
+        System.out.println("Réplica en espera en el puerto " + puerto + ". Pulse ENTER para promoverla.");
+        // Se lee byte a byte para no quitarle entrada al Scanner del menú
+        int c;
+        while ((c = System.in.read()) != -1 && c != '\n') {
+            // Esperando a ENTER
+        }
+        Hotel promovido = replica.promover();
+        System.out.printf("Réplica promovida: %d cambios aplicados, retraso medio %.2f ms, máximo %d ms%n",
+                replica.getAplicados(), replica.getRetrasoMedioMillis(), replica.getRetrasoMaximoMillis());
+        new HotelCLI(promovido).inicio();
+    }
+
+    /**
+     * Reproduce una traza sintética y calcula el informe de clientes en paralelo
+     * @param args Argumentos del programa
+     * @throws InterruptedException si se interrumpe la reproducción
+     */
+    private static void ejecutarAnalitica(String[] args) throws InterruptedException {
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        long semilla = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        int k = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        TrazaCarga traza = new GeneradorCarga(semilla).generar(operaciones);
+        Hotel hotel = new Hotel("Analítica", "Sintética", "00000000", traza.reloj());
+        new ReproductorCarga().reproducir(traza, hotel, 1);
+        InstantaneaHotel instantanea = hotel.obtenerInstantanea();
+        long inicio = System.nanoTime();
+        AnaliticaClientes analitica = AnaliticaClientes.calcular(instantanea);
+        List<EstadisticaCliente> top = analitica.topGasto(k);
+        System.out.printf("%d reservas de %d clientes analizadas en %.1f ms%n", instantanea.getReservas().size(),
+                instantanea.getClientes().size(), (System.nanoTime() - inicio) / 1e6);
+        for (EstadisticaCliente estadistica : top) {
+            System.out.println(estadistica);
+        }
+    }
+
+    /**
+     * Genera una traza con semilla fija y la reproduce contra un hotel vacío
+     * @param args Argumentos del programa
+     * @throws InterruptedException si se interrumpe la reproducción
+     */
+    private static void ejecutarCarga(String[] args) throws InterruptedException {
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        long semilla = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        TrazaCarga traza = new GeneradorCarga(semilla).generar(operaciones);
+        Hotel hotel = new Hotel("Carga", "Sintética", "00000000", traza.reloj());
+        System.out.println(new ReproductorCarga().reproducir(traza, hotel, hilos));
+    }
+}
@@ -0,0 +1,169 @@
+package org.ed06.app;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import org.ed06.model.Hotel;
+
+/**
+ * Clase que reproduce una traza de carga contra un hotel, en un hilo o en varios,
+ * midiendo la latencia de cada operación
+ */
+public class ReproductorCarga {
+    private static final int TIPOS = 4; // Tipos de habitación de la traza
+
+    /**
+     * Reproduce la traza. Con un hilo se ejecuta tal cual se generó, operación a operación.
+     * Con varios se reproduce en dos fases: primero se registran en orden, en el hilo que llama,
+     * todas las habitaciones y clientes de la traza, así sus números e IDs son siempre los mismos.
+     * Después se reparten las reservas y liberaciones por tipo de habitación: cada tipo lo
+     * reproduce un solo hilo en el orden de la traza, y los listados se reparten entre todos.
+     * Como los tipos no comparten habitaciones ni inventario, las reservas aceptadas son las
+     * mismas con cualquier número de hilos mayor que uno y solo cambia lo que se mide; frente
+     * a un hilo cambian porque cada reserva ya ve todas las habitaciones de la traza. Con más
+     * de cuatro hilos los que sobran solo hacen listados. El acceso al hotel se serializa
+     * sincronizando sobre él, y los avisos del hotel se descartan mientras dura la reproducción
+     * @param traza Traza a reproducir
+     * @param hotel Hotel vacío sobre el que se ejecuta
+     * @param hilos Número de hilos
+     * @return Informe con el rendimiento y las latencias
+     * @throws InterruptedException si se interrumpe la espera de los hilos
+     */
+    public InformeCarga reproducir(TrazaCarga traza, Hotel hotel, int hilos) throws InterruptedException {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser mayor que cero");
+        }
+        long[] latencias = new long[traza.getTamano()];
+        int[][] contadores = new int[hilos][3];
+        int[] tipoHabitacion = tiposDeHabitacion(traza);
+        Thread[] trabajadores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            trabajadores[h] = new Thread(() -> ejecutar(traza, hotel, tipoHabitacion, hilo, hilos, latencias,
+                    contadores[hilo]), "carga-" + h);
+        }
+
+        PrintStream mensajes = hotel.getSalidaMensajes();
+        hotel.setSalidaMensajes(new PrintStream(OutputStream.nullOutputStream()));
+        long inicio = System.nanoTime();
+        try {
+            if (hilos == 1) {
+                for (int i = 0; i < traza.getTamano(); i++) {
+                    medir(traza, i, hotel, false, latencias, contadores[0]);
+                }
+            } else {
+                registrar(traza, hotel, latencias, contadores[0]);
+                for (Thread trabajador : trabajadores) trabajador.start();
+                for (Thread trabajador : trabajadores) trabajador.join();
+            }
+        } finally {
+            hotel.setSalidaMensajes(mensajes);
+        }
+        long duracion = System.nanoTime() - inicio;
+
+        int aceptadas = 0, rechazadas = 0, errores = 0;
+        for (int[] contador : contadores) {
+            aceptadas += contador[0];
+            rechazadas += contador[1];
+            errores += contador[2];
+        }
+        return new InformeCarga(hilos, duracion, latencias, aceptadas, rechazadas, errores);
+    }
+
+    /**
+     * Tipo de cada habitación de la traza según el orden en que se registra
+     * @return Tipo indexado por número de habitación
+     */
+    private static int[] tiposDeHabitacion(TrazaCarga traza) {
+        int[] tipos = new int[traza.contar(TrazaCarga.REGISTRAR_HABITACION) + 1];
+        int numero = 0;
+        for (int i = 0; i < traza.getTamano(); i++) {
+            if (traza.operaciones[i] == TrazaCarga.REGISTRAR_HABITACION) {
+                tipos[++numero] = traza.a[i];
+            }
+        }
+        return tipos;
+    }
+
+    /**
+     * Primera fase: registra en orden las habitaciones y clientes de la traza
+     * @param contador Reservas aceptadas, rechazadas y errores
+     */
+    private void registrar(TrazaCarga traza, Hotel hotel, long[] latencias, int[] contador) {
+        for (int i = 0; i < traza.getTamano(); i++) {
+            byte operacion = traza.operaciones[i];
+            if (operacion == TrazaCarga.REGISTRAR_HABITACION || operacion == TrazaCarga.REGISTRAR_CLIENTE) {
+                medir(traza, i, hotel, false, latencias, contador);
+            }
+        }
+    }
+
+    /**
+     * Segunda fase: ejecuta las operaciones que corresponden a un hilo
+     * @param contador Reservas aceptadas, rechazadas y errores del hilo
+     */
+    private void ejecutar(TrazaCarga traza, Hotel hotel, int[] tipoHabitacion, int hilo, int hilos,
+                          long[] latencias, int[] contador) {
+        for (int i = 0; i < traza.getTamano(); i++) {
+            int asignado = switch (traza.operaciones[i]) {
+                case TrazaCarga.REGISTRAR_HABITACION, TrazaCarga.REGISTRAR_CLIENTE -> -1; // Ya registrados
+                case TrazaCarga.RESERVAR -> traza.b[i] % hilos;
+                case TrazaCarga.LIBERAR -> traza.a[i] < tipoHabitacion.length
+                        ? tipoHabitacion[traza.a[i]] % hilos : i % hilos;
+                default -> hilos > TIPOS ? TIPOS + i % (hilos - TIPOS) : i % hilos;
+            };
+            if (asignado == hilo) {
+                medir(traza, i, hotel, hilos > 1, latencias, contador);
+            }
+        }
+    }
+
+    /**
+     * Aplica una operación midiendo su latencia
+     * @param sincronizar Si hay que sincronizar sobre el hotel
+     */
+    private void medir(TrazaCarga traza, int i, Hotel hotel, boolean sincronizar, long[] latencias, int[] contador) {
+        long inicio = System.nanoTime();
+        try {
+            if (sincronizar) {
+                synchronized (hotel) {
+                    aplicar(traza, i, hotel, contador);
+                }
+            } else {
+                aplicar(traza, i, hotel, contador);
+            }
+        } catch (RuntimeException e) {
+            contador[2]++;
+        }
+        latencias[i] = System.nanoTime() - inicio;
+    }
+
+    /**
+     * Aplica una operación de la traza sobre el hotel
+     */
+    private void aplicar(TrazaCarga traza, int i, Hotel hotel, int[] contador) {
+        switch (traza.operaciones[i]) {
+            case TrazaCarga.REGISTRAR_HABITACION ->
+                    hotel.registrarHabitacion(GeneradorCarga.tipo(traza.a[i]), traza.b[i] / 100.0);
+            case TrazaCarga.REGISTRAR_CLIENTE -> {
+                int c = traza.a[i];
+                hotel.registrarCliente(traza.nombres[c], traza.emails[c], traza.dnis[c], traza.b[i] == 1);
+            }
+            case TrazaCarga.RESERVAR -> {
+                LocalDate entrada = LocalDate.ofEpochDay(traza.c[i]);
+                int resultado = hotel.reservarHabitacion(traza.a[i], GeneradorCarga.tipo(traza.b[i]),
+                        entrada, entrada.plusDays(traza.d[i]));
+                contador[resultado > 0 ? 0 : 1]++;
+            }
+            case TrazaCarga.LIBERAR -> hotel.liberarHabitacion(traza.a[i]);
+            case TrazaCarga.LISTAR -> {
+                switch (traza.a[i]) {
+                    case 0 -> hotel.listarHabitacionesDisponibles();
+                    case 1 -> hotel.listarClientes();
+                    default -> hotel.listarReservas();
+                }
+            }
+            default -> throw new IllegalStateException("Operación desconocida en la traza");
+        }
+    }
+}
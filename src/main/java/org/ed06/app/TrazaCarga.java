@@ -0,0 +1,82 @@
+package org.ed06.app;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Clase que guarda una traza de operaciones sobre el hotel en arrays primitivos,
+ * para que reproducirla no cree objetos aparte de los que crea el propio hotel
+ */
+public class TrazaCarga {
+    // Códigos de operación
+    static final byte REGISTRAR_HABITACION = 0; // a = tipo, b = precio en céntimos
+    static final byte REGISTRAR_CLIENTE = 1;    // a = índice de los datos del cliente, b = 1 si es VIP
+    static final byte RESERVAR = 2;             // a = id de cliente, b = tipo, c = día de entrada, d = noches
+    static final byte LIBERAR = 3;              // a = número de habitación
+    static final byte LISTAR = 4;               // a = 0 habitaciones, 1 clientes, 2 reservas
+
+    final byte[] operaciones;
+    final int[] a;
+    final int[] b;
+    final int[] c;
+    final short[] d;
+    final String[] nombres;
+    final String[] emails;
+    final String[] dnis;
+    final long semilla;
+    final LocalDate inicioTemporada;
+
+    /**
+     * Constructor de la traza, lo usa el generador
+     * @param operaciones Número de operaciones
+     * @param clientes Número de clientes que se registran en la traza
+     * @param semilla Semilla con la que se generó
+     * @param inicioTemporada Primer día de la temporada de la traza
+     */
+    TrazaCarga(int operaciones, int clientes, long semilla, LocalDate inicioTemporada) {
+        this.operaciones = new byte[operaciones];
+        this.a = new int[operaciones];
+        this.b = new int[operaciones];
+        this.c = new int[operaciones];
+        this.d = new short[operaciones];
+        this.nombres = new String[clientes];
+        this.emails = new String[clientes];
+        this.dnis = new String[clientes];
+        this.semilla = semilla;
+        this.inicioTemporada = inicioTemporada;
+    }
+
+    //Getters
+    public int getTamano() {
+        return operaciones.length;
+    }
+    public long getSemilla() {
+        return semilla;
+    }
+    public LocalDate getInicioTemporada() {
+        return inicioTemporada;
+    }
+
+    /**
+     * Reloj parado en el inicio de la temporada. Con él ninguna estancia de la traza
+     * termina durante la reproducción y los resultados no dependen de la fecha real
+     * @return Reloj fijo para el hotel que reproduce la traza
+     */
+    public Clock reloj() {
+        return Clock.fixed(inicioTemporada.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Cuenta las operaciones de un tipo
+     * @param operacion Código de operación
+     * @return Número de operaciones de ese tipo
+     */
+    int contar(byte operacion) {
+        int total = 0;
+        for (byte op : operaciones) {
+            if (op == operacion) total++;
+        }
+        return total;
+    }
+}
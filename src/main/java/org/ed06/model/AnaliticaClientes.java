@@ -0,0 +1,273 @@
+package org.ed06.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Clase que calcula estadísticas por cliente (gasto total, estancias, noches medias
+ * y estancias por año) sobre una instantánea del hotel.
+ * Las reservas se reparten entre los hilos de un ForkJoinPool; cada hilo acumula en sus
+ * propios arrays primitivos indexados por cliente y al final se suman por bloques de clientes,
+ * así no hay contención ni objetos por reserva. Los arrays de cada hilo se buscan por su índice
+ * en el pool y solo viven mientras dura el cálculo
+ */
+public class AnaliticaClientes {
+    private static final int UMBRAL_RESERVAS = 1 << 14;
+    private static final int UMBRAL_CLIENTES = 1 << 12;
+
+    private final List<Cliente> clientes;
+    private final double[] gasto;
+    private final int[] estancias;
+    private final long[] noches;
+    private final long[] primeraEntrada;
+    private final long[] ultimaEntrada;
+
+    /**
+     * Arrays de acumulación de un hilo
+     */
+    private static final class Acumulador {
+        final double[] gasto;
+        final int[] estancias;
+        final long[] noches;
+        final long[] primeraEntrada;
+        final long[] ultimaEntrada;
+
+        Acumulador(int clientes) {
+            gasto = new double[clientes];
+            estancias = new int[clientes];
+            noches = new long[clientes];
+            primeraEntrada = new long[clientes];
+            ultimaEntrada = new long[clientes];
+            Arrays.fill(primeraEntrada, Long.MAX_VALUE);
+            Arrays.fill(ultimaEntrada, Long.MIN_VALUE);
+        }
+    }
+
+    private AnaliticaClientes(List<Cliente> clientes, Acumulador total) {
+        this.clientes = clientes;
+        this.gasto = total.gasto;
+        this.estancias = total.estancias;
+        this.noches = total.noches;
+        this.primeraEntrada = total.primeraEntrada;
+        this.ultimaEntrada = total.ultimaEntrada;
+    }
+
+    /**
+     * Calcula las estadísticas con el pool común
+     * @param instantanea Instantánea del hotel
+     * @return Estadísticas de todos los clientes
+     */
+    public static AnaliticaClientes calcular(InstantaneaHotel instantanea) {
+        return calcular(instantanea, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calcula las estadísticas con un pool concreto
+     * @param instantanea Instantánea del hotel
+     * @param pool Pool en el que se reparte el trabajo
+     * @return Estadísticas de todos los clientes
+     */
+    public static AnaliticaClientes calcular(InstantaneaHotel instantanea, ForkJoinPool pool) {
+        if (instantanea == null || pool == null) {
+            throw new IllegalArgumentException("La instantánea y el pool no pueden ser nulos");
+        }
+        List<Cliente> clientes = instantanea.getClientes();
+        List<Reserva> reservas = instantanea.getReservas();
+        Map<Integer, Acumulador> porHilo = new ConcurrentHashMap<>();
+        pool.invoke(new Agregacion(reservas, 0, reservas.size(), clientes.size(), pool, porHilo));
+
+        Acumulador total = new Acumulador(clientes.size());
+        pool.invoke(new Fusion(total, porHilo.values().toArray(new Acumulador[0]), 0, clientes.size()));
+        return new AnaliticaClientes(clientes, total);
+    }
+
+    /**
+     * Tarea que acumula un rango de reservas en el acumulador del hilo que la ejecuta
+     */
+    private static final class Agregacion extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Reserva> reservas;
+        private final int desde;
+        private final int hasta;
+        private final int clientes;
+        private final ForkJoinPool pool;
+        private final Map<Integer, Acumulador> porHilo;
+
+        Agregacion(List<Reserva> reservas, int desde, int hasta, int clientes, ForkJoinPool pool,
+                   Map<Integer, Acumulador> porHilo) {
+            this.reservas = reservas;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.clientes = clientes;
+            this.pool = pool;
+            this.porHilo = porHilo;
+        }
+
+        /**
+         * Índice del hilo que ejecuta la tarea: su posición en el pool, que no comparte con
+         * ningún otro hilo vivo del pool, o -1 para el hilo que lanzó el cálculo si ayuda
+         */
+        private int indiceHilo() {
+            Thread hilo = Thread.currentThread();
+            if (hilo instanceof ForkJoinWorkerThread trabajador && trabajador.getPool() == pool) {
+                return trabajador.getPoolIndex();
+            }
+            return -1;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_RESERVAS) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new Agregacion(reservas, desde, medio, clientes, pool, porHilo),
+                        new Agregacion(reservas, medio, hasta, clientes, pool, porHilo));
+                return;
+            }
+            Acumulador acumulador = porHilo.computeIfAbsent(indiceHilo(), i -> new Acumulador(clientes));
+            for (int i = desde; i < hasta; i++) {
+                Reserva reserva = reservas.get(i);
+                int c = reserva.getCliente().getId() - 1;
+                long entrada = reserva.getFechaInicio().toEpochDay();
+                acumulador.gasto[c] += reserva.getPrecioTotal();
+                acumulador.estancias[c]++;
+                acumulador.noches[c] += reserva.getFechaFin().toEpochDay() - entrada;
+                acumulador.primeraEntrada[c] = Math.min(acumulador.primeraEntrada[c], entrada);
+                acumulador.ultimaEntrada[c] = Math.max(acumulador.ultimaEntrada[c], entrada);
+            }
+        }
+    }
+
+    /**
+     * Tarea que suma los acumuladores de todos los hilos para un rango de clientes
+     */
+    private static final class Fusion extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Acumulador total;
+        private final Acumulador[] parciales;
+        private final int desde;
+        private final int hasta;
+
+        Fusion(Acumulador total, Acumulador[] parciales, int desde, int hasta) {
+            this.total = total;
+            this.parciales = parciales;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > UMBRAL_CLIENTES) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new Fusion(total, parciales, desde, medio), new Fusion(total, parciales, medio, hasta));
+                return;
+            }
+            for (Acumulador parcial : parciales) {
+                for (int c = desde; c < hasta; c++) {
+                    total.gasto[c] += parcial.gasto[c];
+                    total.estancias[c] += parcial.estancias[c];
+                    total.noches[c] += parcial.noches[c];
+                    total.primeraEntrada[c] = Math.min(total.primeraEntrada[c], parcial.primeraEntrada[c]);
+                    total.ultimaEntrada[c] = Math.max(total.ultimaEntrada[c], parcial.ultimaEntrada[c]);
+                }
+            }
+        }
+    }
+
+    //|---- CONSULTAS ----|
+
+    /**
+     * Estadísticas de un cliente
+     * @param clienteId "ID" del cliente
+     * @return Estadísticas del cliente
+     */
+    public EstadisticaCliente obtener(int clienteId) {
+        if (clienteId < 1 || clienteId > clientes.size()) {
+            throw new IllegalArgumentException("No existe el cliente con id " + clienteId);
+        }
+        return estadistica(clienteId - 1);
+    }
+
+    /**
+     * Clientes que más han gastado, usando un montículo de tamaño k con los índices de cliente
+     * @param k Número de clientes
+     * @return Los k clientes con mayor gasto, de mayor a menor
+     */
+    public List<EstadisticaCliente> topGasto(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("El número de clientes debe ser mayor que cero");
+        }
+        int[] monticulo = new int[Math.min(k, gasto.length)];
+        int tamano = 0;
+        for (int c = 0; c < gasto.length; c++) {
+            if (estancias[c] == 0) {
+                continue;
+            }
+            if (tamano < monticulo.length) {
+                monticulo[tamano] = c;
+                subir(monticulo, tamano++);
+            } else if (gasto[c] > gasto[monticulo[0]]) {
+                monticulo[0] = c;
+                bajar(monticulo, 0, tamano);
+            }
+        }
+        // Se vacía el montículo de mínimos de atrás hacia delante para ordenar de mayor a menor
+        EstadisticaCliente[] orden = new EstadisticaCliente[tamano];
+        for (int i = tamano - 1; i >= 0; i--) {
+            orden[i] = estadistica(monticulo[0]);
+            monticulo[0] = monticulo[i];
+            bajar(monticulo, 0, i);
+        }
+        return new ArrayList<>(Arrays.asList(orden));
+    }
+
+    private EstadisticaCliente estadistica(int c) {
+        double nochesMedias = estancias[c] == 0 ? 0 : (double) noches[c] / estancias[c];
+        // Los años de actividad cuentan desde la primera entrada hasta la última, como mínimo uno
+        double anios = estancias[c] == 0 ? 1 : Math.max(1.0, (ultimaEntrada[c] - primeraEntrada[c] + 1) / 365.0);
+        return new EstadisticaCliente(clientes.get(c), gasto[c], estancias[c], nochesMedias, estancias[c] / anios);
+    }
+
+    private void subir(int[] monticulo, int i) {
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (gasto[monticulo[padre]] <= gasto[monticulo[i]]) {
+                return;
+            }
+            intercambiar(monticulo, i, padre);
+            i = padre;
+        }
+    }
+
+    private void bajar(int[] monticulo, int i, int tamano) {
+        while (true) {
+            int menor = i;
+            int izquierdo = 2 * i + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamano && gasto[monticulo[izquierdo]] < gasto[monticulo[menor]]) {
+                menor = izquierdo;
+            }
+            if (derecho < tamano && gasto[monticulo[derecho]] < gasto[monticulo[menor]]) {
+                menor = derecho;
+            }
+            if (menor == i) {
+                return;
+            }
+            intercambiar(monticulo, i, menor);
+            i = menor;
+        }
+    }
+
+    private static void intercambiar(int[] monticulo, int i, int j) {
+        int temporal = monticulo[i];
+        monticulo[i] = monticulo[j];
+        monticulo[j] = temporal;
+    }
+}
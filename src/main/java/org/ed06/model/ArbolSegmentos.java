@@ -0,0 +1,111 @@
+package org.ed06.model;
+
+/**
+ * Clase que implementa un árbol de segmentos de enteros con suma en rango y mínimo en rango.
+ * Las sumas que cubren un nodo entero se quedan pendientes en él y solo se propagan
+ * a sus hijos cuando una operación necesita bajar, así ambas cuestan O(log n)
+ */
+class ArbolSegmentos {
+    private final int hojas;
+    private final int[] minimo;
+    private final int[] pendiente;
+
+    /**
+     * Constructor del árbol con todas las posiciones a cero
+     * @param hojas Número de posiciones, potencia de dos
+     */
+    ArbolSegmentos(int hojas) {
+        if (hojas <= 0 || Integer.bitCount(hojas) != 1) {
+            throw new IllegalArgumentException("El número de posiciones debe ser potencia de dos");
+        }
+        this.hojas = hojas;
+        this.minimo = new int[2 * hojas];
+        this.pendiente = new int[2 * hojas];
+    }
+
+    /**
+     * Suma un valor a todas las posiciones de [desde, hasta)
+     */
+    void sumar(int desde, int hasta, int valor) {
+        if (desde < hasta) {
+            sumar(1, 0, hojas, desde, hasta, valor);
+        }
+    }
+
+    /**
+     * Valor mínimo en [desde, hasta)
+     */
+    int minimo(int desde, int hasta) {
+        if (desde >= hasta) {
+            throw new IllegalArgumentException("El rango está vacío");
+        }
+        return minimo(1, 0, hojas, desde, hasta);
+    }
+
+    /**
+     * Copia los valores de [desde, hasta) a un array
+     */
+    int[] volcar(int desde, int hasta) {
+        int[] valores = new int[Math.max(0, hasta - desde)];
+        if (desde < hasta) {
+            volcar(1, 0, hojas, desde, hasta, valores);
+        }
+        return valores;
+    }
+
+    private void sumar(int nodo, int izquierda, int derecha, int desde, int hasta, int valor) {
+        if (hasta <= izquierda || derecha <= desde) {
+            return;
+        }
+        if (desde <= izquierda && derecha <= hasta) {
+            minimo[nodo] += valor;
+            pendiente[nodo] += valor;
+            return;
+        }
+        empujar(nodo);
+        int medio = (izquierda + derecha) >>> 1;
+        sumar(2 * nodo, izquierda, medio, desde, hasta, valor);
+        sumar(2 * nodo + 1, medio, derecha, desde, hasta, valor);
+        minimo[nodo] = Math.min(minimo[2 * nodo], minimo[2 * nodo + 1]);
+    }
+
+    private int minimo(int nodo, int izquierda, int derecha, int desde, int hasta) {
+        if (hasta <= izquierda || derecha <= desde) {
+            return Integer.MAX_VALUE;
+        }
+        if (desde <= izquierda && derecha <= hasta) {
+            return minimo[nodo];
+        }
+        empujar(nodo);
+        int medio = (izquierda + derecha) >>> 1;
+        return Math.min(minimo(2 * nodo, izquierda, medio, desde, hasta),
+                minimo(2 * nodo + 1, medio, derecha, desde, hasta));
+    }
+
+    private void volcar(int nodo, int izquierda, int derecha, int desde, int hasta, int[] valores) {
+        if (hasta <= izquierda || derecha <= desde) {
+            return;
+        }
+        if (derecha - izquierda == 1) {
+            valores[izquierda - desde] = minimo[nodo];
+            return;
+        }
+        empujar(nodo);
+        int medio = (izquierda + derecha) >>> 1;
+        volcar(2 * nodo, izquierda, medio, desde, hasta, valores);
+        volcar(2 * nodo + 1, medio, derecha, desde, hasta, valores);
+    }
+
+    /**
+     * Pasa la suma pendiente de un nodo a sus dos hijos
+     */
+    private void empujar(int nodo) {
+        if (pendiente[nodo] != 0) {
+            for (int hijo = 2 * nodo; hijo <= 2 * nodo + 1; hijo++) {
+                minimo[hijo] += pendiente[nodo];
+                pendiente[hijo] += pendiente[nodo];
+            }
+            pendiente[nodo] = 0;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.ed06.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffer circular de un solo productor y varios consumidores para los eventos del hotel.
+ * Las ranuras se crean al construir el buffer y se reutilizan, por lo que publicar
+ * no crea objetos. Cada consumidor lleva su propia secuencia de lectura
+ */
+public class BufferEventos {
+    private final EventoHotel[] ranuras;
+    private final int mascara;
+    private final PoliticaDesbordamiento politica;
+
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong descartados = new AtomicLong();
+    private volatile AtomicLong[] secuenciasConsumidores = new AtomicLong[0];
+
+    // Estado propio del hilo productor
+    private long siguiente = -1;
+    private long minimoCacheado = -1;
+
+    /**
+     * Constructor para crear el buffer de eventos
+     * @param capacidad Número de ranuras, debe ser potencia de dos
+     * @param politica Qué hacer cuando el buffer está lleno
+     * @throws IllegalArgumentException si la capacidad no es potencia de dos o la política es nula
+     */
+    public BufferEventos(int capacidad, PoliticaDesbordamiento politica) {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de dos");
+        }
+        if (politica == null) {
+            throw new IllegalArgumentException("La política de desbordamiento no puede ser nula");
+        }
+        this.ranuras = new EventoHotel[capacidad];
+        for (int i = 0; i < capacidad; i++) {
+            ranuras[i] = new EventoHotel();
+        }
+        this.mascara = capacidad - 1;
+        this.politica = politica;
+    }
+
+    //Getters
+    public int getCapacidad() {
+        return ranuras.length;
+    }
+    public PoliticaDesbordamiento getPolitica() {
+        return politica;
+    }
+    public long getCursor() {
+        return cursor.get();
+    }
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Publica un evento. Solo debe llamarse desde un único hilo productor
+     * @param tipo Tipo de evento
+     * @param habitacion Habitación afectada o null
+     * @param cliente Cliente afectado o null
+     * @param reserva Reserva afectada o null
+     * @param marcaTiempo Instante del cambio en milisegundos según el reloj del productor
+     * @return true si se publicó, false si se descartó por estar lleno
+     */
+    public boolean publicar(TipoEvento tipo, Habitacion habitacion, Cliente cliente, Reserva reserva,
+                            long marcaTiempo) {
+        return publicar(tipo, habitacion, cliente, reserva, null, marcaTiempo);
+    }
+
+    /**
+     * Publica un cambio de tarifas. Solo debe llamarse desde un único hilo productor
+     * @param tarifa Tarifas fijadas
+     * @param marcaTiempo Instante del cambio en milisegundos según el reloj del productor
+     * @return true si se publicó, false si se descartó por estar lleno
+     */
+    public boolean publicar(CambioTarifa tarifa, long marcaTiempo) {
+        return publicar(TipoEvento.TARIFA_CAMBIADA, tarifa.getHabitacion(), null, null, tarifa, marcaTiempo);
+    }
+
+    private boolean publicar(TipoEvento tipo, Habitacion habitacion, Cliente cliente, Reserva reserva,
+                             CambioTarifa tarifa, long marcaTiempo) {
+        long secuencia = siguiente + 1;
+        long envoltura = secuencia - ranuras.length;
+
+        if (envoltura > minimoCacheado && politica != PoliticaDesbordamiento.SOBRESCRIBIR) {
+            long minimo = minimoSecuencia(siguiente);
+            if (envoltura > minimo && politica == PoliticaDesbordamiento.DESCARTAR) {
+                descartados.incrementAndGet();
+                return false;
+            }
+            while (envoltura > minimo) {
+                LockSupport.parkNanos(1);
+                minimo = minimoSecuencia(siguiente);
+            }
+            minimoCacheado = minimo;
+        }
+
+        EventoHotel ranura = ranuras[(int) (secuencia & mascara)];
+        if (politica == PoliticaDesbordamiento.SOBRESCRIBIR) {
+            ranura.invalidar(); // Algún consumidor atrasado puede estar leyéndola
+        }
+        ranura.rellenar(tipo, habitacion, cliente, reserva, tarifa, marcaTiempo, secuencia);
+        siguiente = secuencia;
+        cursor.set(secuencia);
+        return true;
+    }
+
+    /**
+     * Crea un consumidor que empieza a leer desde el siguiente evento publicado.
+     * El consumidor puede ejecutarse en su propio hilo o procesarse a mano
+     * @param manejador Código que procesa cada evento
+     * @param espera Estrategia de espera del consumidor
+     * @return El consumidor creado
+     */
+    public synchronized ConsumidorEventos crearConsumidor(ManejadorEventos manejador, EstrategiaEspera espera) {
+        if (manejador == null || espera == null) {
+            throw new IllegalArgumentException("El manejador y la estrategia de espera no pueden ser nulos");
+        }
+        ConsumidorEventos consumidor = new ConsumidorEventos(this, manejador, espera, cursor.get());
+        AtomicLong[] actuales = secuenciasConsumidores;
+        AtomicLong[] nuevas = Arrays.copyOf(actuales, actuales.length + 1);
+        nuevas[actuales.length] = consumidor.secuencia;
+        secuenciasConsumidores = nuevas;
+        return consumidor;
+    }
+
+    /**
+     * Elimina un consumidor para que deje de frenar al productor
+     * @param consumidor Consumidor a eliminar
+     */
+    public synchronized void eliminarConsumidor(ConsumidorEventos consumidor) {
+        consumidor.detener();
+        AtomicLong[] actuales = secuenciasConsumidores;
+        secuenciasConsumidores = Arrays.stream(actuales)
+                .filter(secuencia -> secuencia != consumidor.secuencia)
+                .toArray(AtomicLong[]::new);
+    }
+
+    /**
+     * Obtiene la ranura correspondiente a una secuencia
+     * @param secuencia Secuencia del evento
+     * @return Ranura donde se guarda el evento
+     */
+    EventoHotel ranura(long secuencia) {
+        return ranuras[(int) (secuencia & mascara)];
+    }
+
+    /**
+     * Calcula la secuencia del consumidor más atrasado
+     * @param porDefecto Valor si no hay consumidores
+     * @return Menor secuencia leída por los consumidores
+     */
+    private long minimoSecuencia(long porDefecto) {
+        long minimo = porDefecto;
+        for (AtomicLong secuencia : secuenciasConsumidores) {
+            minimo = Math.min(minimo, secuencia.get());
+        }
+        return minimo;
+    }
+}
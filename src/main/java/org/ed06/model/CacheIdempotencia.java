@@ -0,0 +1,174 @@
+package org.ed06.model;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Clase que recuerda el resultado de cada solicitud de reserva por su identificador,
+ * para que un reintento devuelva lo mismo sin volver a reservar.
+ * Es una tabla de direccionamiento abierto sobre arrays con un límite de entradas:
+ * las más antiguas salen en orden de llegada al llenarse o al caducar, y el borrado
+ * desplaza hacia atrás las entradas siguientes para no dejar marcas de borrado.
+ * Como el resto del hotel, no es segura para varios escritores a la vez
+ */
+public class CacheIdempotencia {
+    /** Valor devuelto por buscar() cuando la solicitud no se conoce */
+    public static final int NO_ENCONTRADO = Integer.MIN_VALUE;
+
+    private final Clock reloj;
+    private final long ttlMillis;
+    private final int mascara;
+
+    // Tabla con las entradas vivas
+    private final String[] claves;
+    private final int[] hashes;
+    private final int[] resultados;
+    private final long[] caducidades;
+
+    // Cola circular con el orden de llegada
+    private final String[] orden;
+    private final long[] ordenCaducidades;
+    private int cabeza;
+    private int cantidad;
+
+    private long aciertos;
+    private long expulsadas;
+
+    /**
+     * Constructor de la caché
+     * @param capacidad Número máximo de solicitudes recordadas
+     * @param ttl Tiempo que se recuerda cada solicitud
+     * @param reloj Reloj con el que se calculan las caducidades
+     */
+    public CacheIdempotencia(int capacidad, Duration ttl, Clock reloj) {
+        if (capacidad <= 0 || capacidad > 1 << 29) {
+            throw new IllegalArgumentException("La capacidad debe estar entre 1 y 2^29");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero() || reloj == null) {
+            throw new IllegalArgumentException("El tiempo de vida y el reloj son obligatorios");
+        }
+        this.reloj = reloj;
+        this.ttlMillis = ttl.toMillis();
+        // Tabla al menos el doble de grande que la capacidad para que los sondeos sean cortos
+        int tamano = Integer.highestOneBit(capacidad * 2 - 1) << 1;
+        this.mascara = tamano - 1;
+        this.claves = new String[tamano];
+        this.hashes = new int[tamano];
+        this.resultados = new int[tamano];
+        this.caducidades = new long[tamano];
+        this.orden = new String[capacidad];
+        this.ordenCaducidades = new long[capacidad];
+    }
+
+    //Getters
+    public int getTamano() {
+        return cantidad;
+    }
+    public int getCapacidad() {
+        return orden.length;
+    }
+    public long getAciertos() {
+        return aciertos;
+    }
+    public long getExpulsadas() {
+        return expulsadas;
+    }
+
+    /**
+     * Busca el resultado guardado de una solicitud
+     * @param idSolicitud Identificador de la solicitud
+     * @return Resultado guardado o NO_ENCONTRADO si no existe o ha caducado
+     */
+    public int buscar(String idSolicitud) {
+        int hash = mezclar(idSolicitud.hashCode());
+        int i = posicion(idSolicitud, hash);
+        if (claves[i] == null || caducidades[i] <= reloj.millis()) {
+            return NO_ENCONTRADO;
+        }
+        aciertos++;
+        return resultados[i];
+    }
+
+    /**
+     * Guarda el resultado de una solicitud nueva. Antes expulsa las caducadas y,
+     * si sigue llena, la más antigua
+     * @param idSolicitud Identificador de la solicitud
+     * @param resultado Resultado que se devolverá en los reintentos
+     */
+    public void guardar(String idSolicitud, int resultado) {
+        long ahora = reloj.millis();
+        while (cantidad > 0 && (ordenCaducidades[cabeza] <= ahora || cantidad == orden.length)) {
+            expulsarMasAntigua();
+        }
+        int hash = mezclar(idSolicitud.hashCode());
+        int i = posicion(idSolicitud, hash);
+        if (claves[i] != null) {
+            // Sigue viva: un reintento no cambia el resultado original
+            return;
+        }
+        long caducidad = ahora + ttlMillis;
+        claves[i] = idSolicitud;
+        hashes[i] = hash;
+        resultados[i] = resultado;
+        caducidades[i] = caducidad;
+        int cola = (cabeza + cantidad) % orden.length;
+        orden[cola] = idSolicitud;
+        ordenCaducidades[cola] = caducidad;
+        cantidad++;
+    }
+
+    /**
+     * Saca de la tabla la solicitud más antigua de la cola
+     */
+    private void expulsarMasAntigua() {
+        String clave = orden[cabeza];
+        orden[cabeza] = null;
+        cabeza = (cabeza + 1) % orden.length;
+        cantidad--;
+        expulsadas++;
+        int i = posicion(clave, mezclar(clave.hashCode()));
+        if (claves[i] != null) {
+            borrar(i);
+        }
+    }
+
+    /**
+     * Borra la posición i y recoloca las entradas del mismo grupo de sondeo
+     * que quedarían inaccesibles tras el hueco
+     */
+    private void borrar(int i) {
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (claves[j] == null) {
+                break;
+            }
+            int ideal = hashes[j] & mascara;
+            // Se mueve si el hueco está entre su posición ideal y la actual
+            if (((j - ideal) & mascara) >= ((j - i) & mascara)) {
+                claves[i] = claves[j];
+                hashes[i] = hashes[j];
+                resultados[i] = resultados[j];
+                caducidades[i] = caducidades[j];
+                i = j;
+            }
+        }
+        claves[i] = null;
+    }
+
+    /**
+     * Posición de la clave en la tabla o del primer hueco de su sondeo
+     */
+    private int posicion(String clave, int hash) {
+        int i = hash & mascara;
+        while (claves[i] != null && (hashes[i] != hash || !claves[i].equals(clave))) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private static int mezclar(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,180 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Clase que guarda las tarifas por noche de cada tipo de habitación, con la opción de
+ * fijar tarifas propias para habitaciones concretas. Las tarifas se guardan en céntimos
+ * junto con sus sumas acumuladas, así el importe de cualquier estancia se obtiene con
+ * dos lecturas por array sea cual sea su duración. Las noches sin tarifa, y las que
+ * quedan fuera de la ventana del calendario, se cobran al precio base de la habitación.
+ * Las tarifas se fijan a través del hotel, que publica cada cambio en su flujo de eventos
+ */
+public class CalendarioTarifas {
+    static final int DIAS = 1 << 12; // La misma ventana que el inventario diario
+
+    private final long origen;
+    private final Map<TipoHabitacion, Tabla> porTipo = new EnumMap<>(TipoHabitacion.class);
+    private final Map<Integer, Tabla> porHabitacion = new HashMap<>();
+    private final Map<Integer, Habitacion> habitacionesPropias = new HashMap<>();
+
+    /**
+     * Tarifas de un tipo o de una habitación con sus sumas acumuladas
+     */
+    private static final class Tabla {
+        final long[] centimos = new long[DIAS]; // 0 = sin tarifa propia
+        final long[] suma = new long[DIAS + 1]; // Suma de las tarifas efectivas hasta cada día
+        final int[] sinTarifa = new int[DIAS + 1]; // Noches sin tarifa efectiva hasta cada día
+
+        /**
+         * Vuelve a calcular las sumas en una pasada. Las noches sin tarifa propia
+         * toman la del respaldo, si lo hay
+         * @param respaldo Tabla del tipo para una habitación, o null para un tipo
+         */
+        void reconstruir(Tabla respaldo) {
+            for (int i = 0; i < DIAS; i++) {
+                long efectiva = centimos[i] != 0 || respaldo == null ? centimos[i] : respaldo.centimos[i];
+                suma[i + 1] = suma[i] + efectiva;
+                sinTarifa[i + 1] = sinTarifa[i] + (efectiva == 0 ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Constructor del calendario sin ninguna tarifa
+     * @param inicio Primer día de la ventana del calendario
+     */
+    CalendarioTarifas(LocalDate inicio) {
+        this.origen = inicio.toEpochDay();
+        for (TipoHabitacion tipo : TipoHabitacion.values()) {
+            Tabla tabla = new Tabla();
+            tabla.reconstruir(null);
+            porTipo.put(tipo, tabla);
+        }
+    }
+
+    //Getters
+    public LocalDate getInicio() {
+        return LocalDate.ofEpochDay(origen);
+    }
+    public LocalDate getFin() {
+        return LocalDate.ofEpochDay(origen + DIAS);
+    }
+
+    /**
+     * Fija las tarifas de una temporada de un tipo de habitación, una por noche
+     * @param tipo Tipo de habitación
+     * @param desde Primera noche
+     * @param preciosNoche Precio de cada noche desde la primera, 0 para volver al precio base
+     */
+    synchronized void fijarTarifas(TipoHabitacion tipo, LocalDate desde, double[] preciosNoche) {
+        if (tipo == null) {
+            throw new IllegalArgumentException("El tipo de habitación no puede ser nulo");
+        }
+        Tabla tabla = porTipo.get(tipo);
+        copiar(tabla, desde, preciosNoche);
+        tabla.reconstruir(null);
+        // Las habitaciones con tarifa propia usan la del tipo en sus noches libres
+        for (Map.Entry<Integer, Tabla> propia : porHabitacion.entrySet()) {
+            if (habitacionesPropias.get(propia.getKey()).getTipo() == tipo) {
+                propia.getValue().reconstruir(tabla);
+            }
+        }
+    }
+
+    /**
+     * Fija las tarifas propias de una temporada de una habitación, una por noche
+     * @param habitacion Habitación
+     * @param desde Primera noche
+     * @param preciosNoche Precio de cada noche desde la primera, 0 para volver a la tarifa del tipo
+     */
+    synchronized void fijarTarifas(Habitacion habitacion, LocalDate desde, double[] preciosNoche) {
+        if (habitacion == null) {
+            throw new IllegalArgumentException("La habitación no puede ser nula");
+        }
+        Tabla tabla = porHabitacion.computeIfAbsent(habitacion.getNumero(), n -> new Tabla());
+        habitacionesPropias.put(habitacion.getNumero(), habitacion);
+        copiar(tabla, desde, preciosNoche);
+        tabla.reconstruir(porTipo.get(habitacion.getTipo()));
+    }
+
+    /**
+     * Importe de una estancia antes de descuentos
+     * @param habitacion Habitación reservada
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return Suma de los precios de cada noche
+     */
+    public double importe(Habitacion habitacion, LocalDate entrada, LocalDate salida) {
+        return importeCentimos(habitacion, entrada, salida) / 100.0;
+    }
+
+    /**
+     * Importe de una estancia antes de descuentos, en céntimos
+     * @param habitacion Habitación reservada
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return Suma de los precios de cada noche en céntimos
+     */
+    synchronized long importeCentimos(Habitacion habitacion, LocalDate entrada, LocalDate salida) {
+        long noches = Math.max(0, salida.toEpochDay() - entrada.toEpochDay());
+        int desde = posicion(entrada);
+        int hasta = Math.max(desde, posicion(salida));
+        Tabla tabla = porHabitacion.get(habitacion.getNumero());
+        if (tabla == null) {
+            tabla = porTipo.get(habitacion.getTipo());
+        }
+        // Noches a precio base: las que no tienen tarifa y las que caen fuera de la ventana
+        long nochesBase = (tabla.sinTarifa[hasta] - tabla.sinTarifa[desde]) + (noches - (hasta - desde));
+        return tabla.suma[hasta] - tabla.suma[desde] + nochesBase * Math.round(habitacion.getPrecioBase() * 100);
+    }
+
+    /**
+     * Copia precios en euros a una tabla como céntimos
+     */
+    private void copiar(Tabla tabla, LocalDate desde, double[] preciosNoche) {
+        if (desde == null || preciosNoche == null) {
+            throw new IllegalArgumentException("La fecha y los precios no pueden ser nulos");
+        }
+        long inicio = desde.toEpochDay() - origen;
+        if (inicio < 0 || inicio + preciosNoche.length > DIAS) {
+            throw new IllegalArgumentException("Las tarifas deben estar entre " + getInicio() + " y " + getFin());
+        }
+        for (double precio : preciosNoche) {
+            if (precio < 0) {
+                throw new IllegalArgumentException("El precio por noche no puede ser negativo");
+            }
+        }
+        for (int i = 0; i < preciosNoche.length; i++) {
+            tabla.centimos[(int) inicio + i] = Math.round(preciosNoche[i] * 100);
+        }
+    }
+
+    /**
+     * Precios de un rango de noches con la misma tarifa
+     * @param desde Primera noche
+     * @param hasta Día siguiente a la última noche
+     * @param precioNoche Precio por noche
+     * @return Un precio por noche del rango
+     */
+    static double[] rellenar(LocalDate desde, LocalDate hasta, double precioNoche) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)
+                || hasta.toEpochDay() - desde.toEpochDay() > DIAS) {
+            throw new IllegalArgumentException("El rango de fechas no es válido");
+        }
+        double[] precios = new double[(int) (hasta.toEpochDay() - desde.toEpochDay())];
+        Arrays.fill(precios, precioNoche);
+        return precios;
+    }
+
+    /**
+     * Posición de un día en la ventana, recortada a sus extremos
+     */
+    private int posicion(LocalDate fecha) {
+        return (int) Math.max(0, Math.min(DIAS, fecha.toEpochDay() - origen));
+    }
+}
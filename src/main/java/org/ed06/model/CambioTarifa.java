@@ -0,0 +1,56 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+
+/**
+ * Clase inmutable que describe un cambio en el calendario de tarifas: los precios
+ * por noche fijados desde un día para un tipo de habitación o para una habitación
+ */
+public final class CambioTarifa {
+    private final TipoHabitacion tipo;
+    private final Habitacion habitacion;
+    private final LocalDate desde;
+    private final double[] preciosNoche;
+
+    /**
+     * Constructor del cambio, guarda una copia de los precios
+     * @param tipo Tipo de habitación, o null si el cambio es de una habitación
+     * @param habitacion Habitación, o null si el cambio es de un tipo
+     * @param desde Primera noche
+     * @param preciosNoche Precio de cada noche desde la primera
+     */
+    CambioTarifa(TipoHabitacion tipo, Habitacion habitacion, LocalDate desde, double[] preciosNoche) {
+        this.tipo = tipo;
+        this.habitacion = habitacion;
+        this.desde = desde;
+        this.preciosNoche = preciosNoche.clone();
+    }
+
+    //Getters
+    public TipoHabitacion getTipo() {
+        return tipo;
+    }
+    public Habitacion getHabitacion() {
+        return habitacion;
+    }
+    public LocalDate getDesde() {
+        return desde;
+    }
+    public int getNoches() {
+        return preciosNoche.length;
+    }
+    public double getPrecioNoche(int noche) {
+        return preciosNoche[noche];
+    }
+    public double[] getPreciosNoche() {
+        return preciosNoche.clone();
+    }
+
+    /**
+     * Indica si el cambio es de una habitación concreta
+     * @return true si es de una habitación, false si es de un tipo
+     */
+    public boolean esDeHabitacion() {
+        return habitacion != null;
+    }
+}
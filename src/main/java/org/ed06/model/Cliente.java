@@ -10,6 +10,7 @@ public class Cliente {
     public String dni; /** Documento con formato español del cliente */
     public String email; /** Dirección de correo del cliente */
     public boolean esVip; /** Indica si el cliente tiene beneficios especiales */
+    IndiceClientes indice; // Índice del hotel donde está registrado, si lo hay
 
     /**
      * Constructor para crear un objeto Cliente con validación de datos
@@ -49,12 +50,15 @@ public class Cliente {
         this.id = id;
     }
     public void setNombre(String nombre) {
+        if (indice != null) indice.cambiarNombre(this, nombre);
         this.nombre = nombre;
     }
     public void setDni(String dni) {
+        if (indice != null) indice.cambiarDni(this, dni); // Rechaza DNIs duplicados
         this.dni = dni;
     }
     public void setEmail(String email) {
+        if (indice != null) indice.cambiarEmail(this, email); // Rechaza emails duplicados
         this.email = email;
     }
     public void setEsVip(boolean esVip) {
@@ -0,0 +1,170 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Clase para construir consultas de reservas encadenando filtros.
+ * Al ejecutarla, el planificador elige el índice más selectivo entre cliente,
+ * habitación, tipo y fecha, y aplica el resto de filtros sobre sus candidatas.
+ * Si ningún índice aplica se recorre en paralelo una instantánea del hotel
+ */
+public class ConsultaReservas {
+    private final Hotel hotel;
+    private final IndiceReservas indice;
+
+    private Integer clienteId;
+    private Integer habitacion;
+    private TipoHabitacion tipo;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private double precioMinimo = Double.NEGATIVE_INFINITY;
+    private double precioMaximo = Double.POSITIVE_INFINITY;
+    private PlanConsulta plan;
+
+    /**
+     * Constructor de la consulta, se obtiene con Hotel.consultarReservas()
+     * @param hotel Hotel consultado
+     * @param indice Índices de reservas del hotel
+     */
+    ConsultaReservas(Hotel hotel, IndiceReservas indice) {
+        this.hotel = hotel;
+        this.indice = indice;
+    }
+
+    //|---- FILTROS ----|
+
+    public ConsultaReservas deCliente(int clienteId) {
+        this.clienteId = clienteId;
+        return this;
+    }
+
+    public ConsultaReservas enHabitacion(int numero) {
+        this.habitacion = numero;
+        return this;
+    }
+
+    public ConsultaReservas deTipo(TipoHabitacion tipo) {
+        this.tipo = tipo;
+        return this;
+    }
+
+    /**
+     * Filtra las estancias que ocupan alguna noche del rango
+     * @param desde Primer día del rango
+     * @param hasta Día siguiente al último del rango (excluido)
+     * @return La propia consulta
+     */
+    public ConsultaReservas entreFechas(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || !desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("El rango de fechas no es válido");
+        }
+        this.desde = desde;
+        this.hasta = hasta;
+        return this;
+    }
+
+    /**
+     * Filtra las estancias que ocupan la noche de una fecha
+     * @param fecha Fecha consultada
+     * @return La propia consulta
+     */
+    public ConsultaReservas enFecha(LocalDate fecha) {
+        return entreFechas(fecha, fecha.plusDays(1));
+    }
+
+    public ConsultaReservas precioMinimo(double precio) {
+        this.precioMinimo = precio;
+        return this;
+    }
+
+    public ConsultaReservas precioMaximo(double precio) {
+        this.precioMaximo = precio;
+        return this;
+    }
+
+    //|---- EJECUCIÓN ----|
+
+    /**
+     * Plan elegido en la última ejecución
+     * @return Camino de acceso usado o null si no se ha ejecutado
+     */
+    public PlanConsulta getPlan() {
+        return plan;
+    }
+
+    /**
+     * Ejecuta la consulta
+     * @return Reservas que cumplen todos los filtros, ordenadas por ID
+     */
+    public List<Reserva> ejecutar() {
+        plan = planificar();
+        List<Reserva> resultado;
+        switch (plan) {
+            case POR_CLIENTE -> resultado = filtrar(indice.deCliente(clienteId));
+            case POR_HABITACION -> resultado = filtrar(indice.deHabitacion(habitacion));
+            case POR_TIPO -> resultado = filtrar(indice.deTipo(tipo));
+            case POR_FECHA -> {
+                resultado = new ArrayList<>();
+                for (List<Reserva> grupo : indice.candidatasPorFecha(desde.toEpochDay(), hasta.toEpochDay()).values()) {
+                    resultado.addAll(filtrar(grupo));
+                }
+            }
+            default -> resultado = hotel.obtenerInstantanea().getReservas().parallelStream()
+                    .filter(this::cumple)
+                    .collect(Collectors.toList());
+        }
+        resultado.sort(Comparator.comparingInt(Reserva::getId));
+        return resultado;
+    }
+
+    /**
+     * Elige el índice con menos candidatas. Los tamaños de cliente, habitación y tipo
+     * son exactos; el de fecha es una estimación por densidad
+     */
+    private PlanConsulta planificar() {
+        PlanConsulta elegido = PlanConsulta.ESCANEO_PARALELO;
+        long mejor = indice.total();
+        if (clienteId != null && indice.deCliente(clienteId).size() <= mejor) {
+            elegido = PlanConsulta.POR_CLIENTE;
+            mejor = indice.deCliente(clienteId).size();
+        }
+        if (habitacion != null && indice.deHabitacion(habitacion).size() < mejor) {
+            elegido = PlanConsulta.POR_HABITACION;
+            mejor = indice.deHabitacion(habitacion).size();
+        }
+        if (desde != null && indice.estimarPorFecha(desde.toEpochDay(), hasta.toEpochDay()) < mejor) {
+            elegido = PlanConsulta.POR_FECHA;
+            mejor = indice.estimarPorFecha(desde.toEpochDay(), hasta.toEpochDay());
+        }
+        if (tipo != null && indice.deTipo(tipo).size() < mejor) {
+            elegido = PlanConsulta.POR_TIPO;
+        }
+        return elegido;
+    }
+
+    private List<Reserva> filtrar(List<Reserva> candidatas) {
+        List<Reserva> resultado = new ArrayList<>();
+        for (Reserva reserva : candidatas) {
+            if (cumple(reserva)) {
+                resultado.add(reserva);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Comprueba todos los filtros sobre una reserva
+     */
+    private boolean cumple(Reserva reserva) {
+        return (clienteId == null || reserva.getCliente().getId() == clienteId)
+                && (habitacion == null || reserva.getHabitacion().getNumero() == habitacion)
+                && (tipo == null || reserva.getHabitacion().getTipo() == tipo)
+                && (desde == null || (reserva.getFechaInicio().isBefore(hasta) && reserva.getFechaFin().isAfter(desde)))
+                && reserva.getPrecioTotal() >= precioMinimo
+                && reserva.getPrecioTotal() <= precioMaximo;
+    }
+}
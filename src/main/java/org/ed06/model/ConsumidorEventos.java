@@ -0,0 +1,119 @@
+package org.ed06.model;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clase que representa un consumidor independiente del buffer de eventos.
+ * Lleva su propia secuencia y procesa por lotes todos los eventos disponibles.
+ * Un error del manejador no detiene al consumidor: se cuenta y se sigue con el siguiente evento
+ */
+public class ConsumidorEventos implements Runnable {
+    private final BufferEventos buffer;
+    private final ManejadorEventos manejador;
+    private final EstrategiaEspera espera;
+    final AtomicLong secuencia;
+    private final EventoHotel copia = new EventoHotel(); // Con SOBRESCRIBIR el manejador recibe una copia
+    private volatile boolean activo = true;
+    private long perdidos;
+    private long errores;
+
+    /**
+     * Constructor del consumidor, lo usa el buffer al registrarlo
+     * @param buffer Buffer del que lee
+     * @param manejador Código que procesa cada evento
+     * @param espera Estrategia de espera
+     * @param inicial Última secuencia que se considera ya leída
+     */
+    ConsumidorEventos(BufferEventos buffer, ManejadorEventos manejador, EstrategiaEspera espera, long inicial) {
+        this.buffer = buffer;
+        this.manejador = manejador;
+        this.espera = espera;
+        this.secuencia = new AtomicLong(inicial);
+    }
+
+    //Getters
+    public long getSecuencia() {
+        return secuencia.get();
+    }
+    public boolean isActivo() {
+        return activo;
+    }
+    public long getPerdidos() {
+        return perdidos;
+    }
+    public long getErrores() {
+        return errores;
+    }
+
+    /**
+     * Bucle del consumidor para ejecutarlo en un hilo propio hasta que se detenga
+     */
+    @Override
+    public void run() {
+        while (activo) {
+            if (espera.esperar(secuencia.get() + 1, buffer, this) > secuencia.get()) {
+                procesarDisponibles();
+            }
+        }
+    }
+
+    /**
+     * Procesa como un lote todos los eventos publicados que aún no se han leído
+     * @return Número de eventos procesados
+     */
+    public int procesarDisponibles() {
+        long siguiente = secuencia.get() + 1;
+        long disponible = buffer.getCursor();
+        int procesados = 0;
+
+        for (long s = siguiente; s <= disponible; s++) {
+            EventoHotel evento = leer(s);
+            if (evento == null) {
+                // El productor ha dado la vuelta (SOBRESCRIBIR): saltamos a lo más antiguo que sigue en el buffer
+                long reanudar = Math.max(s + 1, buffer.getCursor() - buffer.getCapacidad() + 1);
+                perdidos += reanudar - s;
+                secuencia.set(reanudar - 1);
+                return procesados;
+            }
+            try {
+                manejador.alEvento(evento, s, s == disponible);
+            } catch (RuntimeException e) {
+                // Si el hilo muriera, con ESPERAR el productor se quedaría bloqueado al llenarse el buffer
+                errores++;
+                System.err.println("Error al procesar el evento " + s + ": " + e);
+            }
+            procesados++;
+        }
+        if (disponible >= siguiente) {
+            secuencia.set(disponible);
+        }
+        return procesados;
+    }
+
+    /**
+     * Lee el evento de una secuencia. Con SOBRESCRIBIR copia los datos y vuelve a comprobar
+     * la secuencia después de copiarlos, así el manejador nunca recibe un evento a medio sobrescribir
+     * @param s Secuencia del evento
+     * @return El evento, o null si el productor ya ha reutilizado su ranura
+     */
+    private EventoHotel leer(long s) {
+        EventoHotel ranura = buffer.ranura(s);
+        if (ranura.secuencia != s) {
+            return null;
+        }
+        if (buffer.getPolitica() != PoliticaDesbordamiento.SOBRESCRIBIR) {
+            return ranura; // El productor no reutiliza la ranura hasta que avance la secuencia
+        }
+        ranura.copiarEn(copia, s);
+        VarHandle.loadLoadFence(); // La secuencia se vuelve a leer después de los datos
+        return ranura.secuencia == s ? copia : null;
+    }
+
+    /**
+     * Detiene el bucle del consumidor
+     */
+    public void detener() {
+        activo = false;
+    }
+}
@@ -0,0 +1,234 @@
+package org.ed06.model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clase que controla la entrada de peticiones al hotel cuando hay mucha demanda.
+ * Las peticiones esperan en una cola acotada y las atiende un número fijo de hilos,
+ * que acceden al hotel sincronizando sobre él. Si la cola está llena, o una petición
+ * ha esperado más de lo permitido, se rechaza enseguida en lugar de acumular retraso.
+ * Las reservas de un tipo agotado para esas noches se rechazan antes de entrar en la cola
+ * y sin bloquear el hotel. Las que llevan identificador de solicitud siempre pasan por la
+ * cola, así un reintento recibe el resultado guardado aunque el tipo se haya agotado después
+ */
+public class ControlAdmision implements AutoCloseable {
+    /** Código devuelto cuando la reserva se rechaza por exceso de carga */
+    public static final int RECHAZADA = -6;
+
+    private final Hotel hotel;
+    private final ThreadPoolExecutor ejecutor;
+    private final long esperaMaximaNanos;
+
+    private final LongAdder admitidas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder caducadas = new LongAdder();
+    private final LongAdder agotadas = new LongAdder();
+    private final AtomicBoolean barridoPendiente = new AtomicBoolean();
+
+    /**
+     * Constructor del control de admisión
+     * @param hotel Hotel protegido
+     * @param trabajadores Número máximo de peticiones atendidas a la vez
+     * @param capacidadCola Número máximo de peticiones esperando
+     * @param esperaMaxima Tiempo máximo en cola, pasado el cual la petición se rechaza
+     */
+    public ControlAdmision(Hotel hotel, int trabajadores, int capacidadCola, Duration esperaMaxima) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("El hotel no puede ser nulo");
+        }
+        if (trabajadores <= 0 || capacidadCola <= 0) {
+            throw new IllegalArgumentException("Los trabajadores y la capacidad de la cola deben ser mayores que cero");
+        }
+        if (esperaMaxima == null || esperaMaxima.isNegative()) {
+            throw new IllegalArgumentException("La espera máxima no es válida");
+        }
+        this.hotel = hotel;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.ejecutor = new ThreadPoolExecutor(trabajadores, trabajadores, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), r -> {
+                    Thread hilo = new Thread(r, "admision-hotel");
+                    hilo.setDaemon(true);
+                    return hilo;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    //Getters
+    public long getAdmitidas() {
+        return admitidas.sum();
+    }
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+    public long getCaducadas() {
+        return caducadas.sum();
+    }
+    public long getAgotadas() {
+        return agotadas.sum();
+    }
+    public int getEnCola() {
+        return ejecutor.getQueue().size();
+    }
+
+    /**
+     * Pide una reserva a través del control de admisión
+     * @param clienteId "ID" del cliente que realiza la reserva
+     * @param tipo Tipo de habitación solicitada
+     * @param fechaEntrada Fecha de inicio de la estadía
+     * @param fechaSalida Fecha de fin de la estadía
+     * @return Futuro con el resultado de Hotel.reservarHabitacion, -4 si el tipo está
+     * agotado o RECHAZADA si no se admite por carga
+     */
+    public CompletableFuture<Integer> reservarHabitacion(int clienteId, TipoHabitacion tipo,
+                                                         LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return reservarHabitacion(null, clienteId, tipo, fechaEntrada, fechaSalida);
+    }
+
+    /**
+     * Pide una reserva idempotente a través del control de admisión. Un rechazo por carga
+     * no queda guardado con la solicitud, así que se puede reintentar con el mismo identificador
+     * @param idSolicitud Identificador único de la solicitud o null si no se usa
+     * @param clienteId "ID" del cliente que realiza la reserva
+     * @param tipo Tipo de habitación solicitada
+     * @param fechaEntrada Fecha de inicio de la estadía
+     * @param fechaSalida Fecha de fin de la estadía
+     * @return Futuro con el resultado de Hotel.reservarHabitacion, -4 si el tipo está
+     * agotado o RECHAZADA si no se admite por carga
+     * @throws IllegalArgumentException si el tipo o las fechas son nulos
+     */
+    public CompletableFuture<Integer> reservarHabitacion(String idSolicitud, int clienteId, TipoHabitacion tipo,
+                                                         LocalDate fechaEntrada, LocalDate fechaSalida) {
+        if (tipo == null || fechaEntrada == null || fechaSalida == null) {
+            throw new IllegalArgumentException("El tipo de habitación y las fechas no pueden ser nulos");
+        }
+        if (idSolicitud == null && agotado(tipo, fechaEntrada, fechaSalida)) {
+            agotadas.increment();
+            programarBarrido();
+            return CompletableFuture.completedFuture(-4); // Código de error: no hay habitaciones disponibles
+        }
+        CompletableFuture<Integer> resultado = new CompletableFuture<>();
+        long llegada = System.nanoTime();
+        try {
+            ejecutor.execute(() -> {
+                if (caducada(llegada)) {
+                    resultado.complete(RECHAZADA);
+                    return;
+                }
+                try {
+                    synchronized (hotel) {
+                        resultado.complete(idSolicitud == null
+                                ? hotel.reservarHabitacion(clienteId, tipo, fechaEntrada, fechaSalida)
+                                : hotel.reservarHabitacion(idSolicitud, clienteId, tipo, fechaEntrada, fechaSalida));
+                    }
+                } catch (RuntimeException e) {
+                    resultado.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            return CompletableFuture.completedFuture(RECHAZADA);
+        }
+        admitidas.increment();
+        return resultado;
+    }
+
+    /**
+     * Pide el registro de un cliente a través del control de admisión
+     * @param nombre Nombre del cliente
+     * @param email Email del cliente
+     * @param dni DNI del cliente
+     * @param esVip Si el cliente es VIP
+     * @return Futuro con el cliente registrado. Falla con RejectedExecutionException
+     * si no se admite por carga, o con la excepción del registro si los datos no son válidos
+     */
+    public CompletableFuture<Cliente> registrarCliente(String nombre, String email, String dni, boolean esVip) {
+        CompletableFuture<Cliente> resultado = new CompletableFuture<>();
+        long llegada = System.nanoTime();
+        try {
+            ejecutor.execute(() -> {
+                if (caducada(llegada)) {
+                    resultado.completeExceptionally(new RejectedExecutionException("La petición ha esperado demasiado"));
+                    return;
+                }
+                try {
+                    synchronized (hotel) {
+                        resultado.complete(hotel.registrarCliente(nombre, email, dni, esVip));
+                    }
+                } catch (RuntimeException e) {
+                    resultado.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        admitidas.increment();
+        return resultado;
+    }
+
+    /**
+     * Comprueba sin bloquear el hotel si el tipo no tiene habitaciones libres
+     * o alguna noche de la estancia está completa. Las fechas fuera del calendario
+     * del hotel no cuentan como agotadas: el hotel las rechaza con su propio código
+     */
+    private boolean agotado(TipoHabitacion tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        InventarioDiario inventario = hotel.getInventario();
+        return inventario.cubre(fechaEntrada, fechaSalida) && (hotel.getDisponibilidad().vista(tipo).contar() == 0
+                || !inventario.hayHueco(tipo, fechaEntrada, fechaSalida));
+    }
+
+    /**
+     * Encarga a un trabajador aplicar las retenciones caducadas y las salidas del día, que el
+     * hotel solo procesa al llegarle peticiones: sin esto un tipo agotado no volvería a tener
+     * sitio mientras todas sus peticiones se rechazaran aquí. Nunca hay más de un barrido
+     * pendiente, y si la cola está llena no hace falta, porque cada reserva encolada ya lo aplica
+     */
+    private void programarBarrido() {
+        if (!barridoPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ejecutor.execute(() -> {
+                barridoPendiente.set(false);
+                synchronized (hotel) {
+                    hotel.actualizarSegunReloj();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            barridoPendiente.set(false);
+        }
+    }
+
+    /**
+     * Comprueba si una petición ha superado la espera máxima en cola
+     * @param llegada Instante de llegada en nanosegundos
+     * @return true si hay que descartarla
+     */
+    private boolean caducada(long llegada) {
+        if (System.nanoTime() - llegada > esperaMaximaNanos) {
+            caducadas.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deja de admitir peticiones y espera a que terminen las admitidas
+     */
+    @Override
+    public void close() {
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.ed06.model;
+
+/**
+ * Enumeración con el objetivo que se optimiza al repartir un grupo en habitaciones
+ */
+public enum CriterioGrupo {
+    /** El menor precio total; a igualdad, menos habitaciones */
+    MAS_BARATO,
+    /** El menor número de habitaciones; a igualdad, el menor precio */
+    MENOS_HABITACIONES
+}
@@ -0,0 +1,75 @@
+package org.ed06.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase que agrupa las vistas de disponibilidad de cada tipo de habitación.
+ * Las habitaciones le avisan al reservarse o liberarse, así las vistas
+ * se mantienen al día sin recorrer todas las habitaciones
+ */
+public class DisponibilidadHabitaciones implements ObservadorDisponibilidad {
+    private final Map<TipoHabitacion, VistaDisponibilidad> vistas = new EnumMap<>(TipoHabitacion.class);
+    private volatile long version;
+    private volatile List<Habitacion> cache = List.of();
+    private volatile long versionCache;
+
+    /**
+     * Constructor que crea una vista vacía por cada tipo de habitación
+     */
+    DisponibilidadHabitaciones() {
+        for (TipoHabitacion tipo : TipoHabitacion.values()) {
+            vistas.put(tipo, new VistaDisponibilidad(tipo));
+        }
+    }
+
+    /**
+     * Obtiene la versión global, que cambia con cualquier cambio de disponibilidad
+     * @return Versión actual
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtiene la vista de un tipo de habitación
+     * @param tipo Tipo de habitación
+     * @return Vista de disponibilidad de ese tipo
+     */
+    public VistaDisponibilidad vista(TipoHabitacion tipo) {
+        return vistas.get(tipo);
+    }
+
+    /**
+     * Lista todas las habitaciones disponibles ordenadas por número
+     * @return Lista inmutable, la misma instancia mientras no haya cambios
+     */
+    public List<Habitacion> listar() {
+        // Se lee primero la versión de la caché: la lista leída después es al menos igual de nueva
+        if (versionCache == version) {
+            return cache;
+        }
+        synchronized (this) {
+            if (versionCache != version) {
+                long leida = version;
+                List<Habitacion> todas = new ArrayList<>();
+                for (VistaDisponibilidad vista : vistas.values()) {
+                    todas.addAll(vista.listar());
+                }
+                todas.sort(Comparator.comparingInt(Habitacion::getNumero));
+                cache = List.copyOf(todas);
+                versionCache = leida;
+            }
+            return cache;
+        }
+    }
+
+    @Override
+    public void disponibilidadCambiada(Habitacion habitacion, boolean disponible) {
+        vistas.get(habitacion.getTipo()).actualizar(habitacion, disponible);
+        version++;
+    }
+}
@@ -0,0 +1,44 @@
+package org.ed06.model;
+
+/**
+ * Clase que representa las estadísticas acumuladas de un cliente en un informe de analítica
+ */
+public final class EstadisticaCliente {
+    private final Cliente cliente;
+    private final double gastoTotal;
+    private final int estancias;
+    private final double nochesMedias;
+    private final double estanciasPorAnio;
+
+    EstadisticaCliente(Cliente cliente, double gastoTotal, int estancias, double nochesMedias,
+                       double estanciasPorAnio) {
+        this.cliente = cliente;
+        this.gastoTotal = gastoTotal;
+        this.estancias = estancias;
+        this.nochesMedias = nochesMedias;
+        this.estanciasPorAnio = estanciasPorAnio;
+    }
+
+    //Getters
+    public Cliente getCliente() {
+        return cliente;
+    }
+    public double getGastoTotal() {
+        return gastoTotal;
+    }
+    public int getEstancias() {
+        return estancias;
+    }
+    public double getNochesMedias() {
+        return nochesMedias;
+    }
+    public double getEstanciasPorAnio() {
+        return estanciasPorAnio;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.2f € en %d estancias (%.1f noches de media, %.2f al año)",
+                cliente.getNombre(), gastoTotal, estancias, nochesMedias, estanciasPorAnio);
+    }
+}
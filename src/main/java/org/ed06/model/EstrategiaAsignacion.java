@@ -0,0 +1,32 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+
+/**
+ * Interfaz que decide qué habitación disponible se asigna a una reserva
+ */
+@FunctionalInterface
+public interface EstrategiaAsignacion {
+
+    /** La habitación disponible con el número más bajo (comportamiento original) */
+    EstrategiaAsignacion PRIMER_AJUSTE = (indice, tipo, entrada, salida) -> indice.primeraDisponible(tipo);
+
+    /**
+     * La habitación cuyo hueco libre se ajusta más a la estancia, para no fragmentar el calendario.
+     * Nunca elige una habitación cuyas estancias se solaparían con la nueva
+     */
+    EstrategiaAsignacion MEJOR_AJUSTE = (indice, tipo, entrada, salida) -> indice.mejorAjuste(tipo, entrada);
+
+    /** La habitación disponible con el importe más bajo para la estancia según el calendario de tarifas */
+    EstrategiaAsignacion MAS_BARATA = (indice, tipo, entrada, salida) -> indice.masBarata(tipo, entrada, salida);
+
+    /**
+     * Elige la habitación para una reserva
+     * @param indice Índices de habitaciones disponibles del hotel
+     * @param tipo Tipo de habitación solicitada
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return Habitación elegida o null si no hay ninguna disponible
+     */
+    Habitacion elegir(IndiceAsignacion indice, TipoHabitacion tipo, LocalDate entrada, LocalDate salida);
+}
@@ -0,0 +1,69 @@
+package org.ed06.model;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Interfaz que define cómo espera un consumidor a que haya eventos nuevos.
+ * Devuelve la última secuencia publicada, que puede abarcar un lote entero
+ */
+@FunctionalInterface
+public interface EstrategiaEspera {
+
+    /**
+     * Espera hasta que la secuencia indicada esté publicada o el consumidor se detenga
+     * @param secuencia Secuencia que necesita el consumidor
+     * @param buffer Buffer del que se leen los eventos
+     * @param consumidor Consumidor que espera
+     * @return Última secuencia publicada (menor que la pedida si el consumidor se detuvo)
+     */
+    long esperar(long secuencia, BufferEventos buffer, ConsumidorEventos consumidor);
+
+    /**
+     * Espera activa: la menor latencia a costa de ocupar un núcleo
+     * @return Estrategia de espera activa
+     */
+    static EstrategiaEspera activa() {
+        return (secuencia, buffer, consumidor) -> {
+            long disponible;
+            while ((disponible = buffer.getCursor()) < secuencia && consumidor.isActivo()) {
+                Thread.onSpinWait();
+            }
+            return disponible;
+        };
+    }
+
+    /**
+     * Gira unas cuantas veces y después cede el procesador a otros hilos
+     * @return Estrategia de espera que cede el procesador
+     */
+    static EstrategiaEspera cediendo() {
+        return (secuencia, buffer, consumidor) -> {
+            int giros = 100;
+            long disponible;
+            while ((disponible = buffer.getCursor()) < secuencia && consumidor.isActivo()) {
+                if (giros > 0) {
+                    giros--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return disponible;
+        };
+    }
+
+    /**
+     * Duerme un intervalo fijo entre comprobaciones, apta para consumidores que procesan por lotes
+     * @param nanos Nanosegundos que duerme entre comprobaciones
+     * @return Estrategia de espera que duerme
+     */
+    static EstrategiaEspera durmiendo(long nanos) {
+        return (secuencia, buffer, consumidor) -> {
+            long disponible;
+            while ((disponible = buffer.getCursor()) < secuencia && consumidor.isActivo()) {
+                LockSupport.parkNanos(nanos);
+            }
+            return disponible;
+        };
+    }
+}
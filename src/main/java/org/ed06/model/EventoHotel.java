@@ -0,0 +1,111 @@
+package org.ed06.model;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Clase que representa una ranura preasignada del buffer de eventos.
+ * El productor la rellena en cada publicación, así no se crea ningún objeto por evento
+ */
+public class EventoHotel {
+    private TipoEvento tipo;
+    private Habitacion habitacion;
+    private Cliente cliente;
+    private Reserva reserva;
+    private CambioTarifa tarifa;
+    // Datos del cliente al publicar: el cliente puede cambiar, por ejemplo hacerse VIP, antes de que se lea
+    private String nombreCliente;
+    private String emailCliente;
+    private String dniCliente;
+    private boolean clienteVip;
+    private long marcaTiempo;
+    volatile long secuencia = -1; // Se escribe la última para detectar sobrescrituras
+
+    /**
+     * Rellena la ranura con los datos del cambio
+     * @param tipo Tipo de evento
+     * @param habitacion Habitación afectada o null
+     * @param cliente Cliente afectado o null
+     * @param reserva Reserva afectada o null
+     * @param tarifa Tarifas fijadas o null
+     * @param marcaTiempo Instante del cambio según el reloj del hotel
+     * @param secuencia Secuencia asignada por el buffer
+     */
+    void rellenar(TipoEvento tipo, Habitacion habitacion, Cliente cliente, Reserva reserva, CambioTarifa tarifa,
+                  long marcaTiempo, long secuencia) {
+        this.tipo = tipo;
+        this.habitacion = habitacion;
+        this.cliente = cliente;
+        this.reserva = reserva;
+        this.tarifa = tarifa;
+        this.nombreCliente = cliente == null ? null : cliente.getNombre();
+        this.emailCliente = cliente == null ? null : cliente.getEmail();
+        this.dniCliente = cliente == null ? null : cliente.getDni();
+        this.clienteVip = cliente != null && cliente.isEsVip();
+        this.marcaTiempo = marcaTiempo;
+        this.secuencia = secuencia;
+    }
+
+    /**
+     * Marca la ranura como en escritura antes de sobrescribirla. Un lector que la
+     * esté copiando ve cambiar la secuencia y descarta la copia
+     */
+    void invalidar() {
+        secuencia = -1;
+        VarHandle.storeStoreFence(); // Los datos nuevos no se escriben antes que la marca
+    }
+
+    /**
+     * Copia los datos de la ranura en otra. Quien copia debe comprobar
+     * después que la secuencia no ha cambiado
+     * @param destino Evento donde se copian los datos
+     * @param secuencia Secuencia que se leyó antes de copiar
+     */
+    void copiarEn(EventoHotel destino, long secuencia) {
+        destino.tipo = tipo;
+        destino.habitacion = habitacion;
+        destino.cliente = cliente;
+        destino.reserva = reserva;
+        destino.tarifa = tarifa;
+        destino.nombreCliente = nombreCliente;
+        destino.emailCliente = emailCliente;
+        destino.dniCliente = dniCliente;
+        destino.clienteVip = clienteVip;
+        destino.marcaTiempo = marcaTiempo;
+        destino.secuencia = secuencia;
+    }
+
+    //Getters
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+    public Habitacion getHabitacion() {
+        return habitacion;
+    }
+    public Cliente getCliente() {
+        return cliente;
+    }
+    public Reserva getReserva() {
+        return reserva;
+    }
+    public CambioTarifa getTarifa() {
+        return tarifa;
+    }
+    public String getNombreCliente() {
+        return nombreCliente;
+    }
+    public String getEmailCliente() {
+        return emailCliente;
+    }
+    public String getDniCliente() {
+        return dniCliente;
+    }
+    public boolean isClienteVip() {
+        return clienteVip;
+    }
+    public long getMarcaTiempo() {
+        return marcaTiempo;
+    }
+    public long getSecuencia() {
+        return secuencia;
+    }
+}
@@ -0,0 +1,345 @@
+package org.ed06.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Clase que exporta reservas y clientes a ficheros CSV o JSON en streaming.
+ * Los datos se codifican directamente desde los objetos del hotel a un buffer
+ * directo reutilizable que se vuelca con un FileChannel, sin crear un String por fila.
+ * Lee de una instantánea del hotel, así que no frena a las reservas mientras exporta
+ */
+public class ExportadorDatos {
+    private static final int TAMANO_BUFFER = 1 << 20;
+    private static final int MARGEN = 32; // Espacio mínimo para un número o carácter codificado
+    private static final byte[] CABECERA_RESERVAS =
+            ascii("id,habitacion,tipo,cliente_id,cliente,fecha_inicio,fecha_fin,precio_total\n");
+    private static final byte[] CABECERA_CLIENTES = ascii("id,nombre,dni,email,vip\n");
+
+    private final Hotel hotel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+    private final byte[] digitos = new byte[20];
+    private FileChannel canal;
+
+    /**
+     * Constructor del exportador
+     * @param hotel Hotel cuyos datos se exportan
+     * @throws IllegalArgumentException si el hotel es null
+     */
+    public ExportadorDatos(Hotel hotel) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("El hotel no puede ser nulo");
+        }
+        this.hotel = hotel;
+    }
+
+    /**
+     * Exporta las reservas cuya estancia se solapa con el rango de fechas indicado
+     * @param destino Fichero de salida, se sobrescribe si existe
+     * @param formato Formato del fichero
+     * @param desde Primera fecha del rango o null para no limitar
+     * @param hasta Última fecha del rango o null para no limitar
+     * @return Número de reservas exportadas
+     * @throws IOException si falla la escritura
+     */
+    public synchronized long exportarReservas(Path destino, FormatoExportacion formato,
+                                              LocalDate desde, LocalDate hasta) throws IOException {
+        long filas = 0;
+        abrir(destino);
+        try {
+            if (formato == FormatoExportacion.CSV) {
+                escribir(CABECERA_RESERVAS);
+            } else {
+                escribir('[');
+            }
+            for (Reserva reserva : hotel.obtenerInstantanea().getReservas()) {
+                if ((desde != null && reserva.getFechaFin().isBefore(desde))
+                        || (hasta != null && reserva.getFechaInicio().isAfter(hasta))) {
+                    continue;
+                }
+                if (formato == FormatoExportacion.CSV) {
+                    escribirReservaCsv(reserva);
+                } else {
+                    escribirReservaJson(reserva, filas == 0);
+                }
+                filas++;
+            }
+            if (formato == FormatoExportacion.JSON) {
+                escribir('\n');
+                escribir(']');
+                escribir('\n');
+            }
+            vaciar();
+        } finally {
+            cerrar();
+        }
+        return filas;
+    }
+
+    /**
+     * Exporta todos los clientes registrados
+     * @param destino Fichero de salida, se sobrescribe si existe
+     * @param formato Formato del fichero
+     * @return Número de clientes exportados
+     * @throws IOException si falla la escritura
+     */
+    public synchronized long exportarClientes(Path destino, FormatoExportacion formato) throws IOException {
+        long filas = 0;
+        abrir(destino);
+        try {
+            if (formato == FormatoExportacion.CSV) {
+                escribir(CABECERA_CLIENTES);
+            } else {
+                escribir('[');
+            }
+            for (Cliente cliente : hotel.obtenerInstantanea().getClientes()) {
+                if (formato == FormatoExportacion.CSV) {
+                    escribirClienteCsv(cliente);
+                } else {
+                    escribirClienteJson(cliente, filas == 0);
+                }
+                filas++;
+            }
+            if (formato == FormatoExportacion.JSON) {
+                escribir('\n');
+                escribir(']');
+                escribir('\n');
+            }
+            vaciar();
+        } finally {
+            cerrar();
+        }
+        return filas;
+    }
+
+    //|---- FILAS ----|
+
+    private void escribirReservaCsv(Reserva reserva) throws IOException {
+        escribirNumero(reserva.getId());
+        escribir(',');
+        escribirNumero(reserva.getHabitacion().getNumero());
+        escribir(',');
+        escribirAscii(reserva.getHabitacion().getTipo().name());
+        escribir(',');
+        escribirNumero(reserva.getCliente().getId());
+        escribir(',');
+        escribirTextoCsv(reserva.getCliente().getNombre());
+        escribir(',');
+        escribirFecha(reserva.getFechaInicio());
+        escribir(',');
+        escribirFecha(reserva.getFechaFin());
+        escribir(',');
+        escribirImporte(reserva.getPrecioTotal());
+        escribir('\n');
+    }
+
+    private void escribirReservaJson(Reserva reserva, boolean primera) throws IOException {
+        escribirAscii(primera ? "\n{\"id\":" : ",\n{\"id\":");
+        escribirNumero(reserva.getId());
+        escribirAscii(",\"habitacion\":");
+        escribirNumero(reserva.getHabitacion().getNumero());
+        escribirAscii(",\"tipo\":\"");
+        escribirAscii(reserva.getHabitacion().getTipo().name());
+        escribirAscii("\",\"clienteId\":");
+        escribirNumero(reserva.getCliente().getId());
+        escribirAscii(",\"cliente\":");
+        escribirTextoJson(reserva.getCliente().getNombre());
+        escribirAscii(",\"fechaInicio\":\"");
+        escribirFecha(reserva.getFechaInicio());
+        escribirAscii("\",\"fechaFin\":\"");
+        escribirFecha(reserva.getFechaFin());
+        escribirAscii("\",\"precioTotal\":");
+        escribirImporte(reserva.getPrecioTotal());
+        escribir('}');
+    }
+
+    private void escribirClienteCsv(Cliente cliente) throws IOException {
+        escribirNumero(cliente.getId());
+        escribir(',');
+        escribirTextoCsv(cliente.getNombre());
+        escribir(',');
+        escribirTextoCsv(cliente.getDni());
+        escribir(',');
+        escribirTextoCsv(cliente.getEmail());
+        escribir(',');
+        escribirAscii(cliente.isEsVip() ? "true" : "false");
+        escribir('\n');
+    }
+
+    private void escribirClienteJson(Cliente cliente, boolean primero) throws IOException {
+        escribirAscii(primero ? "\n{\"id\":" : ",\n{\"id\":");
+        escribirNumero(cliente.getId());
+        escribirAscii(",\"nombre\":");
+        escribirTextoJson(cliente.getNombre());
+        escribirAscii(",\"dni\":");
+        escribirTextoJson(cliente.getDni());
+        escribirAscii(",\"email\":");
+        escribirTextoJson(cliente.getEmail());
+        escribirAscii(cliente.isEsVip() ? ",\"vip\":true}" : ",\"vip\":false}");
+    }
+
+    //|---- CODIFICACIÓN ----|
+
+    /**
+     * Escribe un texto en CSV, entre comillas solo si contiene separadores o comillas
+     */
+    private void escribirTextoCsv(String texto) throws IOException {
+        boolean comillas = false;
+        for (int i = 0; i < texto.length() && !comillas; i++) {
+            char c = texto.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (comillas) escribir('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') escribir('"');
+            i = escribirCaracter(texto, i);
+        }
+        if (comillas) escribir('"');
+    }
+
+    /**
+     * Escribe un texto JSON entre comillas escapando los caracteres especiales
+     */
+    private void escribirTextoJson(String texto) throws IOException {
+        escribir('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\') {
+                escribir('\\');
+                escribir(c);
+            } else if (c < 0x20) {
+                escribirAscii("\\u00");
+                escribir(Character.forDigit(c >> 4, 16));
+                escribir(Character.forDigit(c & 0xF, 16));
+            } else {
+                i = escribirCaracter(texto, i);
+            }
+        }
+        escribir('"');
+    }
+
+    /**
+     * Codifica en UTF-8 el carácter (o par sustituto) que empieza en la posición indicada
+     * @return Posición del último char consumido
+     */
+    private int escribirCaracter(String texto, int i) throws IOException {
+        asegurar(4);
+        int c = texto.codePointAt(i);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (c < 0x10000) {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else {
+            buffer.put((byte) (0xF0 | (c >> 18)));
+            buffer.put((byte) (0x80 | ((c >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+            return i + 1;
+        }
+        return i;
+    }
+
+    private void escribirAscii(String texto) throws IOException {
+        for (int i = 0; i < texto.length(); i++) {
+            escribir(texto.charAt(i));
+        }
+    }
+
+    private void escribirNumero(long valor) throws IOException {
+        asegurar(MARGEN);
+        if (valor < 0) {
+            buffer.put((byte) '-');
+            valor = -valor;
+        }
+        int n = 0;
+        do {
+            digitos[n++] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        } while (valor > 0);
+        while (n > 0) {
+            buffer.put(digitos[--n]);
+        }
+    }
+
+    private void escribirDosCifras(int valor) {
+        buffer.put((byte) ('0' + valor / 10));
+        buffer.put((byte) ('0' + valor % 10));
+    }
+
+    /**
+     * Escribe una fecha con formato yyyy-MM-dd
+     */
+    private void escribirFecha(LocalDate fecha) throws IOException {
+        escribirNumero(fecha.getYear());
+        escribir('-');
+        escribirDosCifras(fecha.getMonthValue());
+        escribir('-');
+        escribirDosCifras(fecha.getDayOfMonth());
+    }
+
+    /**
+     * Escribe un importe con dos decimales
+     */
+    private void escribirImporte(double importe) throws IOException {
+        long centimos = Math.round(importe * 100);
+        if (centimos < 0) {
+            escribir('-');
+            centimos = -centimos;
+        }
+        escribirNumero(centimos / 100);
+        escribir('.');
+        escribirDosCifras((int) (centimos % 100));
+    }
+
+    private void escribir(char c) throws IOException {
+        asegurar(MARGEN);
+        buffer.put((byte) c);
+    }
+
+    private void escribir(byte[] bytes) throws IOException {
+        asegurar(bytes.length);
+        buffer.put(bytes);
+    }
+
+    //|---- CANAL ----|
+
+    private void asegurar(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            vaciar();
+        }
+    }
+
+    private void abrir(Path destino) throws IOException {
+        canal = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.clear();
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void cerrar() throws IOException {
+        canal.close();
+        canal = null;
+    }
+
+    private static byte[] ascii(String texto) {
+        return texto.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,9 @@
+package org.ed06.model;
+
+/**
+ * Enumeración con los formatos de fichero que admite el exportador de datos
+ */
+public enum FormatoExportacion {
+    CSV,
+    JSON
+}
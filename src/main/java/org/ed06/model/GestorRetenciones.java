@@ -0,0 +1,111 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Clase que guarda las retenciones provisionales de habitaciones mientras el cliente
+ * confirma la reserva. Cada retención caduca sola gracias a la rueda de temporizadores
+ */
+class GestorRetenciones {
+    private static final long TICK_MILLIS = 100;
+
+    private final RuedaTemporizadores rueda;
+    private final Map<Integer, Retencion> porId = new HashMap<>();
+    private final Map<Integer, Retencion> porHabitacion = new HashMap<>();
+    private int contador;
+
+    /**
+     * Clase que representa una habitación retenida para un cliente
+     */
+    static class Retencion extends RuedaTemporizadores.Nodo {
+        final int id;
+        final Habitacion habitacion;
+        final Cliente cliente;
+        final LocalDate fechaEntrada;
+        final LocalDate fechaSalida;
+
+        Retencion(int id, Habitacion habitacion, Cliente cliente, LocalDate fechaEntrada, LocalDate fechaSalida) {
+            this.id = id;
+            this.habitacion = habitacion;
+            this.cliente = cliente;
+            this.fechaEntrada = fechaEntrada;
+            this.fechaSalida = fechaSalida;
+        }
+    }
+
+    /**
+     * Constructor del gestor
+     * @param inicioMillis Instante inicial del reloj del hotel
+     */
+    GestorRetenciones(long inicioMillis) {
+        this.rueda = new RuedaTemporizadores(TICK_MILLIS, inicioMillis);
+    }
+
+    int activas() {
+        return porId.size();
+    }
+
+    boolean retenida(int numero) {
+        return porHabitacion.containsKey(numero);
+    }
+
+    /**
+     * Registra una retención nueva
+     * @param habitacion Habitación ya marcada como no disponible
+     * @param cliente Cliente que la retiene
+     * @param fechaEntrada Fecha de entrada
+     * @param fechaSalida Fecha de salida
+     * @param venceMillis Instante en el que caduca
+     * @return La retención creada
+     */
+    Retencion crear(Habitacion habitacion, Cliente cliente, LocalDate fechaEntrada, LocalDate fechaSalida,
+                    long venceMillis) {
+        Retencion retencion = new Retencion(++contador, habitacion, cliente, fechaEntrada, fechaSalida);
+        porId.put(retencion.id, retencion);
+        porHabitacion.put(habitacion.getNumero(), retencion);
+        rueda.programar(retencion, venceMillis);
+        return retencion;
+    }
+
+    /**
+     * Quita una retención antes de que caduque
+     * @param id Identificador de la retención
+     * @return La retención quitada o null si no existe o ya caducó
+     */
+    Retencion quitar(int id) {
+        Retencion retencion = porId.remove(id);
+        if (retencion != null) {
+            porHabitacion.remove(retencion.habitacion.getNumero());
+            rueda.cancelar(retencion);
+        }
+        return retencion;
+    }
+
+    /**
+     * Quita la retención de una habitación, si la tiene
+     * @param numero Número de la habitación
+     * @return La retención quitada o null si no había
+     */
+    Retencion quitarDeHabitacion(int numero) {
+        Retencion retencion = porHabitacion.get(numero);
+        return retencion == null ? null : quitar(retencion.id);
+    }
+
+    /**
+     * Hace caducar las retenciones vencidas hasta el instante dado
+     * @param ahoraMillis Instante actual
+     * @param alCaducar Acción para cada retención caducada, ya quitada del gestor
+     * @return Número de retenciones caducadas
+     */
+    int caducar(long ahoraMillis, Consumer<Retencion> alCaducar) {
+        return rueda.avanzar(ahoraMillis, nodo -> {
+            Retencion retencion = (Retencion) nodo;
+            porId.remove(retencion.id);
+            porHabitacion.remove(retencion.habitacion.getNumero());
+            alCaducar.accept(retencion);
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package org.ed06.model;
 
+import java.io.PrintStream;
+
 /**
  * Clase que representa una habitación de un hotel
  */
@@ -8,6 +10,8 @@ public class Habitacion {
     private final TipoHabitacion tipo; // "SIMPLE", "DOBLE", "SUITE", "LITERAS"
     private double precioBase;
     private boolean disponible;
+    ObservadorDisponibilidad observador; // Vistas de disponibilidad del hotel, si está registrada
+    PrintStream mensajes = System.out; // Salida de avisos del hotel, si está registrada
 
     /**
      * Constructor para crear un objeto habitación
@@ -46,14 +50,18 @@ public class Habitacion {
             throw new IllegalStateException("La habitación no está disponible");
         }
         disponible = false;
-        System.out.println("Habitación #" + numero + " reservada");
+        if (observador != null) observador.disponibilidadCambiada(this, false);
+        mensajes.println("Habitación #" + numero + " reservada");
     }
 
     /**
      * Libera la habitación, cambiando su estado a disponible
      */
     public void liberar() {
-        disponible = true;
+        if (!disponible) {
+            disponible = true;
+            if (observador != null) observador.disponibilidadCambiada(this, true);
+        }
     }
 
 }
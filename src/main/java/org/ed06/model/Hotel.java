@@ -1,10 +1,16 @@
 package org.ed06.model;
+import java.io.PrintStream;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Clase que representa un hotel con sus habitaciones, clientes y reservas
- * Gestiona toda operación relacionada con el hotel
+ * Gestiona toda operación relacionada con el hotel.
+ * Las operaciones que modifican el hotel deben llegar desde un único hilo o
+ * sincronizarse sobre el hotel; los listados leen una instantánea y no necesitan bloqueo
  */
 public class Hotel {
     private final String nombre;
@@ -14,6 +20,23 @@ public class Hotel {
     private final Map<Integer,Cliente> clientes = new HashMap<>();
     private final List<Habitacion> habitaciones = new ArrayList<>();
     private final Map<Integer,List<Reserva>> reservasPorHabitacion = new HashMap<>();
+    private final IndiceReservas indiceReservas = new IndiceReservas(reservasPorHabitacion);
+    private final IndiceClientes indiceClientes = new IndiceClientes();
+    private final ListaEspera listaEspera = new ListaEspera();
+    private final DisponibilidadHabitaciones disponibilidad = new DisponibilidadHabitaciones();
+    private final IndiceAsignacion indiceAsignacion;
+    private final ObservadorDisponibilidad observadorHabitaciones;
+    private EstrategiaAsignacion estrategiaAsignacion = EstrategiaAsignacion.PRIMER_AJUSTE;
+    private final PlanificadorGrupos planificadorGrupos;
+    private BufferEventos eventos;
+    private volatile InstantaneaHotel instantanea = InstantaneaHotel.VACIA;
+    private final Clock reloj;
+    private CacheIdempotencia idempotencia;
+    private final GestorRetenciones retenciones;
+    private final InventarioDiario inventario;
+    private final CalendarioTarifas tarifas;
+    private final PlanificadorSalidas salidas = new PlanificadorSalidas();
+    private PrintStream mensajes = System.out;
 
     /**
      * Constructor para crear un objeto hotel
@@ -22,9 +45,87 @@ public class Hotel {
      * @param telefono Telefono del hotel
      */
     public Hotel(String nombre, String direccion, String telefono) {
+        this(nombre, direccion, telefono, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor para crear un objeto hotel con un reloj propio
+     * @param nombre Nombre del hotel
+     * @param direccion Dirección del hotel
+     * @param telefono Telefono del hotel
+     * @param reloj Reloj con el que el hotel mide el tiempo
+     */
+    public Hotel(String nombre, String direccion, String telefono, Clock reloj) {
+        if (reloj == null) {
+            throw new IllegalArgumentException("El reloj no puede ser nulo");
+        }
         this.nombre = nombre;
         this.direccion = direccion;
         this.telefono = telefono;
+        this.reloj = reloj;
+        this.idempotencia = new CacheIdempotencia(1 << 16, Duration.ofHours(24), reloj);
+        this.retenciones = new GestorRetenciones(reloj.millis());
+        LocalDate inicioVentana = LocalDate.now(reloj).withDayOfYear(1).minusYears(1);
+        this.inventario = new InventarioDiario(inicioVentana);
+        this.tarifas = new CalendarioTarifas(inicioVentana);
+        this.indiceAsignacion = new IndiceAsignacion(disponibilidad, tarifas);
+        this.observadorHabitaciones = (habitacion, disponible) -> {
+            disponibilidad.disponibilidadCambiada(habitacion, disponible);
+            indiceAsignacion.disponibilidadCambiada(habitacion, disponible);
+        };
+        this.planificadorGrupos = new PlanificadorGrupos(indiceAsignacion, tarifas);
+    }
+
+    public Clock getReloj() {
+        return reloj;
+    }
+    public PrintStream getSalidaMensajes() {
+        return mensajes;
+    }
+
+    /**
+     * Cambia dónde escriben el hotel y sus habitaciones los avisos de cada operación
+     * @param mensajes Salida de los avisos (System.out por defecto)
+     */
+    public void setSalidaMensajes(PrintStream mensajes) {
+        if (mensajes == null) {
+            throw new IllegalArgumentException("La salida de mensajes no puede ser nula");
+        }
+        this.mensajes = mensajes;
+        for (Habitacion habitacion : habitaciones) {
+            habitacion.mensajes = mensajes;
+        }
+    }
+
+    /**
+     * Conecta el buffer donde se publican los cambios del hotel para otros sistemas
+     * @param eventos Buffer de eventos o null para dejar de publicar
+     */
+    public void setBufferEventos(BufferEventos eventos) {
+        this.eventos = eventos;
+    }
+
+    /**
+     * Publica un cambio en el buffer de eventos si hay uno conectado
+     * @param tipo Tipo de evento
+     * @param habitacion Habitación afectada o null
+     * @param cliente Cliente afectado o null
+     * @param reserva Reserva afectada o null
+     */
+    private void publicarEvento(TipoEvento tipo, Habitacion habitacion, Cliente cliente, Reserva reserva) {
+        if (eventos != null) {
+            eventos.publicar(tipo, habitacion, cliente, reserva, reloj.millis());
+        }
+    }
+
+    /**
+     * Publica un cambio del calendario de tarifas, así la réplica cobra lo mismo que el primario
+     * @param cambio Tarifas fijadas
+     */
+    private void publicarTarifa(CambioTarifa cambio) {
+        if (eventos != null) {
+            eventos.publicar(cambio, reloj.millis());
+        }
     }
 
     //|---- GESTIÓN DE HABITACIONES ----|
@@ -46,6 +147,12 @@ public class Hotel {
         Habitacion habitacion = new Habitacion(habitaciones.size() + 1, tipo, precioBase, true);
         habitaciones.add(habitacion);
         reservasPorHabitacion.put(habitacion.getNumero(), new ArrayList<>());
+        inventario.habitacionRegistrada(tipo);
+        habitacion.observador = observadorHabitaciones;
+        habitacion.mensajes = mensajes;
+        observadorHabitaciones.disponibilidadCambiada(habitacion, habitacion.isDisponible());
+        instantanea = instantanea.conHabitacion(habitacion);
+        publicarEvento(TipoEvento.HABITACION_REGISTRADA, habitacion, null, null);
         return habitacion;
     }
 
@@ -64,18 +171,40 @@ public class Hotel {
     }
 
     /**
-     * Lista todas las habitaciones del hotel
+     * Lista las habitaciones disponibles del hotel
      *
-     * @return
+     * @return Habitaciones disponibles ordenadas por número. Mientras no cambie
+     * la disponibilidad se devuelve la misma lista sin recalcularla
      */
     public List<Habitacion> listarHabitacionesDisponibles() {
-        for(Habitacion habitacion : habitaciones) {
-            if(habitacion.isDisponible()) {
-                System.out.println("Habitación: " + habitacion.getNumero() +
-                        " - Tipo: " + habitacion.getTipo() + " - Precio base: " + habitacion.getPrecioBase());
-            }
-        }
-        return null;
+        return disponibilidad.listar();
+    }
+
+    /**
+     * Lista las habitaciones disponibles de un tipo
+     * @param tipo Tipo de habitación
+     * @return Habitaciones disponibles de ese tipo ordenadas por número
+     */
+    public List<Habitacion> listarHabitacionesDisponibles(TipoHabitacion tipo) {
+        return disponibilidad.vista(tipo).listar();
+    }
+
+    /**
+     * Obtiene las vistas de disponibilidad, con su versión para saber si algo
+     * ha cambiado desde la última consulta
+     * @return Disponibilidad por tipo de habitación
+     */
+    public DisponibilidadHabitaciones getDisponibilidad() {
+        return disponibilidad;
+    }
+
+    /**
+     * Obtiene la versión actual del hotel para leerla sin bloqueos.
+     * La instantánea no cambia aunque el hotel siga modificándose
+     * @return Instantánea inmutable del hotel
+     */
+    public InstantaneaHotel obtenerInstantanea() {
+        return instantanea;
     }
 
     /**
@@ -84,16 +213,133 @@ public class Hotel {
      * @return La habitación o null si no existe
      */
     public Habitacion obtenerHabitacion(int numero) {
-        for(Habitacion habitacion : habitaciones) {
-            if(habitacion.getNumero() == numero) {
-                return habitacion;
+        // Los números se asignan de forma consecutiva empezando en 1
+        if (numero < 1 || numero > habitaciones.size()) {
+            return null;
+        }
+        return habitaciones.get(numero - 1);
+    }
+
+    /**
+     * Libera una habitación ocupada y se la asigna a la mejor petición
+     * que esté esperando ese tipo de habitación
+     * @param numero Número de la habitación a liberar
+     * @throws IllegalArgumentException si la habitación no existe
+     */
+    public void liberarHabitacion(int numero) {
+        Habitacion habitacion = obtenerHabitacion(numero);
+        if (habitacion == null) {
+            throw new IllegalArgumentException("No existe la habitación " + numero);
+        }
+        if (habitacion.isDisponible()) {
+            return;
+        }
+        GestorRetenciones.Retencion retencion = retenciones.quitarDeHabitacion(numero);
+        if (retencion != null) {
+            devolverInventario(retencion);
+        } else {
+            // Vuelven al inventario las noches de la última reserva que aún no han pasado;
+            // las pasadas siguen contando como vendidas en la curva
+            List<Reserva> reservas = reservasPorHabitacion.get(numero);
+            if (!reservas.isEmpty()) {
+                Reserva actual = reservas.get(reservas.size() - 1);
+                LocalDate hoy = LocalDate.now(reloj);
+                LocalDate desde = actual.getFechaInicio().isBefore(hoy) ? hoy : actual.getFechaInicio();
+                inventario.sumar(habitacion.getTipo(), desde, actual.getFechaFin(), 1);
             }
         }
-        return null;
+        dejarLibre(habitacion);
+    }
+
+    /**
+     * Marca la habitación como disponible y se la ofrece a la lista de espera
+     * @param habitacion Habitación no disponible
+     */
+    private void dejarLibre(Habitacion habitacion) {
+        habitacion.liberar();
+        instantanea = instantanea.conDisponibilidad(habitacion.getNumero(), true);
+        publicarEvento(TipoEvento.HABITACION_LIBERADA, habitacion, null, null);
+        asignarListaEspera(habitacion.getTipo());
+    }
+
+    /**
+     * Inventario de unidades libres por tipo de habitación y noche
+     * @return Inventario diario del hotel
+     */
+    public InventarioDiario getInventario() {
+        return inventario;
+    }
+
+    /**
+     * Calendario con las tarifas por noche de cada tipo y habitación. Solo sirve para
+     * consultar importes: las tarifas se cambian con los métodos fijarTarifa del hotel
+     * @return Calendario de tarifas del hotel
+     */
+    public CalendarioTarifas getTarifas() {
+        return tarifas;
+    }
+
+    /**
+     * Fija la misma tarifa para todas las noches de un rango de un tipo de habitación
+     * @param tipo Tipo de habitación
+     * @param desde Primera noche
+     * @param hasta Día siguiente a la última noche
+     * @param precioNoche Precio por noche, o 0 para volver al precio base
+     */
+    public void fijarTarifa(TipoHabitacion tipo, LocalDate desde, LocalDate hasta, double precioNoche) {
+        fijarTarifas(tipo, desde, CalendarioTarifas.rellenar(desde, hasta, precioNoche));
+    }
+
+    /**
+     * Fija las tarifas de una temporada de un tipo de habitación, una por noche,
+     * y publica el cambio para que la réplica cobre lo mismo
+     * @param tipo Tipo de habitación
+     * @param desde Primera noche
+     * @param preciosNoche Precio de cada noche desde la primera, 0 para volver al precio base
+     */
+    public void fijarTarifas(TipoHabitacion tipo, LocalDate desde, double[] preciosNoche) {
+        tarifas.fijarTarifas(tipo, desde, preciosNoche);
+        publicarTarifa(new CambioTarifa(tipo, null, desde, preciosNoche));
+    }
+
+    /**
+     * Fija una tarifa propia para todas las noches de un rango de una habitación
+     * @param habitacion Habitación
+     * @param desde Primera noche
+     * @param hasta Día siguiente a la última noche
+     * @param precioNoche Precio por noche, o 0 para volver a la tarifa del tipo
+     */
+    public void fijarTarifa(Habitacion habitacion, LocalDate desde, LocalDate hasta, double precioNoche) {
+        fijarTarifas(habitacion, desde, CalendarioTarifas.rellenar(desde, hasta, precioNoche));
+    }
+
+    /**
+     * Fija las tarifas propias de una temporada de una habitación, una por noche,
+     * y publica el cambio para que la réplica cobre lo mismo
+     * @param habitacion Habitación
+     * @param desde Primera noche
+     * @param preciosNoche Precio de cada noche desde la primera, 0 para volver a la tarifa del tipo
+     */
+    public void fijarTarifas(Habitacion habitacion, LocalDate desde, double[] preciosNoche) {
+        tarifas.fijarTarifas(habitacion, desde, preciosNoche);
+        indiceAsignacion.tarifaPropia(habitacion);
+        publicarTarifa(new CambioTarifa(null, habitacion, desde, preciosNoche));
     }
 
     //|---- GESTIÓN DE RESERVAS ----|
 
+    /**
+     * Cambia la estrategia con la que se elige habitación al reservar
+     * @param estrategia Estrategia de asignación (PRIMER_AJUSTE por defecto)
+     * @throws IllegalArgumentException si la estrategia es nula
+     */
+    public void setEstrategiaAsignacion(EstrategiaAsignacion estrategia) {
+        if (estrategia == null) {
+            throw new IllegalArgumentException("La estrategia de asignación no puede ser nula");
+        }
+        this.estrategiaAsignacion = estrategia;
+    }
+
     /**
      * Realiza una reserva de habitación para un cliente
      * @param clienteId "ID" del cliente que realiza la reserva
@@ -101,37 +347,506 @@ public class Hotel {
      * @param fechaEntrada Fecha de inicio de la estadía
      * @param fechaSalida Fecha de fin de la estadía
      * @return Número de habitación asignada o código de error negativo
+     * @throws IllegalArgumentException si el tipo o alguna de las fechas es nula
      */
     public int reservarHabitacion(int clienteId, TipoHabitacion tipo,
                                   LocalDate fechaEntrada, LocalDate fechaSalida) {
+        validarPeticion(tipo, fechaEntrada, fechaSalida);
+        actualizarSegunReloj();
         if (habitaciones.isEmpty()) {
-            System.out.println("No hay habitaciones en el hotel");
+            mensajes.println("No hay habitaciones en el hotel");
             return -1; // Código de error: no hay habitaciones
         }
 
         Cliente cliente = clientes.get(clienteId);
         if (cliente == null) {
-            System.out.println("No existe el cliente con id " + clienteId);
+            mensajes.println("No existe el cliente con id " + clienteId);
             return -2; // Código de error: cliente no existe
         }
 
         if (fechaEntrada.isAfter(fechaSalida)) {
-            System.out.println("La fecha de entrada es posterior a la fecha de salida");
+            mensajes.println("La fecha de entrada es posterior a la fecha de salida");
             return -3; // Código de error: fechas inválidas
         }
 
-        for (Habitacion habitacion : habitaciones) {
-            if (habitacion.getTipo() == tipo && habitacion.isDisponible()) {
-                actualizarEstadoVipCliente(cliente);
-                crearReserva(habitacion, cliente, fechaEntrada, fechaSalida);
-                return habitacion.getNumero();
-            }
+        if (!inventario.cubre(fechaEntrada, fechaSalida)) {
+            mensajes.println("Las fechas deben estar entre " + inventario.getInicio() + " y " + inventario.getFin());
+            return -3; // Código de error: fechas fuera del calendario del hotel
+        }
+
+        if (!inventario.hayHueco(tipo, fechaEntrada, fechaSalida)) {
+            mensajes.println("No quedan habitaciones del tipo " + tipo + " para esas fechas");
+            return -4; // Código de error: no hay habitaciones disponibles
+        }
+
+        Habitacion habitacion = estrategiaAsignacion.elegir(indiceAsignacion, tipo, fechaEntrada, fechaSalida);
+        if (habitacion != null) {
+            actualizarEstadoVipCliente(cliente);
+            crearReserva(habitacion, cliente, fechaEntrada, fechaSalida);
+            return habitacion.getNumero();
         }
 
-        System.out.println("No hay habitaciones disponibles del tipo " + tipo);
+        mensajes.println("No hay habitaciones disponibles del tipo " + tipo);
         return -4; // Código de error: no hay habitaciones disponibles
     }
 
+    /**
+     * Comprueba que una petición de reserva trae tipo y fechas
+     * @throws IllegalArgumentException si el tipo o alguna de las fechas es nula
+     */
+    private static void validarPeticion(TipoHabitacion tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        if (tipo == null) {
+            throw new IllegalArgumentException("El tipo de habitación no puede ser nulo");
+        }
+        if (fechaEntrada == null || fechaSalida == null) {
+            throw new IllegalArgumentException("Las fechas de entrada y salida no pueden ser nulas");
+        }
+    }
+
+    /**
+     * Realiza una reserva identificada por la solicitud que la pide. Si la misma solicitud
+     * ya se procesó se devuelve el resultado original sin volver a reservar, así los
+     * reintentos tras un tiempo de espera agotado no ocupan otra habitación
+     * @param idSolicitud Identificador único de la solicitud, se repite en los reintentos
+     * @param clienteId "ID" del cliente que realiza la reserva
+     * @param tipo Tipo de habitación solicitada
+     * @param fechaEntrada Fecha de inicio de la estadía
+     * @param fechaSalida Fecha de fin de la estadía
+     * @return Número de habitación asignada o código de error negativo
+     */
+    public int reservarHabitacion(String idSolicitud, int clienteId, TipoHabitacion tipo,
+                                  LocalDate fechaEntrada, LocalDate fechaSalida) {
+        if (idSolicitud == null || idSolicitud.isEmpty()) {
+            throw new IllegalArgumentException("El identificador de la solicitud no puede estar vacío");
+        }
+        int previo = idempotencia.buscar(idSolicitud);
+        if (previo != CacheIdempotencia.NO_ENCONTRADO) {
+            return previo;
+        }
+        int resultado = reservarHabitacion(clienteId, tipo, fechaEntrada, fechaSalida);
+        idempotencia.guardar(idSolicitud, resultado);
+        return resultado;
+    }
+
+    /**
+     * Cambia la caché donde se recuerdan las solicitudes de reserva ya procesadas
+     * @param idempotencia Caché nueva, las solicitudes de la anterior se olvidan
+     */
+    public void setCacheIdempotencia(CacheIdempotencia idempotencia) {
+        if (idempotencia == null) {
+            throw new IllegalArgumentException("La caché no puede ser nula");
+        }
+        this.idempotencia = idempotencia;
+    }
+
+    /**
+     * Cambia las fechas de una reserva en curso manteniendo su habitación
+     * @param reservaId ID de la reserva
+     * @param nuevaEntrada Nueva fecha de entrada
+     * @param nuevaSalida Nueva fecha de salida
+     * @return Número de habitación o código de error negativo, como en la versión con habitación
+     */
+    public int modificarReserva(int reservaId, LocalDate nuevaEntrada, LocalDate nuevaSalida) {
+        return modificarReserva(reservaId, 0, nuevaEntrada, nuevaSalida);
+    }
+
+    /**
+     * Cambia las fechas de una reserva en curso o la mueve a otra habitación del mismo tipo.
+     * La reserva conserva su ID y se vuelve a calcular su precio con las mismas reglas.
+     * Si la estancia ya ha empezado no se puede cambiar su entrada ni adelantar su salida
+     * a antes de hoy: las noches ya pasadas siguen vendidas y cobradas
+     * @param reservaId ID de la reserva
+     * @param numeroHabitacion Habitación de destino o 0 para mantener la actual
+     * @param nuevaEntrada Nueva fecha de entrada
+     * @param nuevaSalida Nueva fecha de salida
+     * @return Número de habitación de la reserva o código de error: -1 la reserva no existe,
+     * -2 la reserva ya no ocupa su habitación, -3 fechas inválidas o que cambian noches ya
+     * pasadas, -4 la habitación de destino no está libre para esas fechas, -5 la habitación
+     * de destino no existe o es de otro tipo
+     */
+    public int modificarReserva(int reservaId, int numeroHabitacion, LocalDate nuevaEntrada, LocalDate nuevaSalida) {
+        actualizarSegunReloj();
+        if (cambiaNochesPasadas(reservaId, nuevaEntrada, nuevaSalida)) {
+            return -3; // Código de error: las noches pasadas no se pueden cambiar
+        }
+        return aplicarModificacion(reservaId, numeroHabitacion, nuevaEntrada, nuevaSalida);
+    }
+
+    /**
+     * Indica si una modificación tocaría noches de la estancia anteriores a hoy. Se comprueba
+     * solo en el primario: la réplica aplica lo que el primario ya aceptó, aunque su reloj vaya después
+     */
+    private boolean cambiaNochesPasadas(int reservaId, LocalDate nuevaEntrada, LocalDate nuevaSalida) {
+        if (reservaId < 1 || reservaId > instantanea.getReservas().size()
+                || nuevaEntrada == null || nuevaSalida == null) {
+            return false; // aplicarModificacion devuelve su propio código de error
+        }
+        LocalDate entrada = instantanea.getReservas().get(reservaId - 1).getFechaInicio();
+        LocalDate hoy = LocalDate.now(reloj);
+        return entrada.isBefore(hoy) && (!nuevaEntrada.equals(entrada) || nuevaSalida.isBefore(hoy));
+    }
+
+    /**
+     * Aplica la modificación de una reserva sin procesar antes lo vencido según el reloj,
+     * como hace la réplica con los cambios del primario
+     * @param reservaId ID de la reserva
+     * @param numeroHabitacion Habitación de destino o 0 para mantener la actual
+     * @param nuevaEntrada Nueva fecha de entrada
+     * @param nuevaSalida Nueva fecha de salida
+     * @return Número de habitación de la reserva o código de error negativo
+     */
+    int aplicarModificacion(int reservaId, int numeroHabitacion, LocalDate nuevaEntrada, LocalDate nuevaSalida) {
+        if (reservaId < 1 || reservaId > instantanea.getReservas().size()) {
+            return -1; // Código de error: la reserva no existe
+        }
+        Reserva anterior = instantanea.getReservas().get(reservaId - 1);
+        if (!esActiva(anterior)) {
+            return -2; // Código de error: la reserva ya no está en curso
+        }
+        if (nuevaEntrada == null || nuevaSalida == null || nuevaEntrada.isAfter(nuevaSalida)
+                || !inventario.cubre(nuevaEntrada, nuevaSalida)) {
+            return -3; // Código de error: fechas inválidas o fuera del calendario del hotel
+        }
+        Habitacion origen = anterior.getHabitacion();
+        Habitacion destino = numeroHabitacion == 0 ? origen : obtenerHabitacion(numeroHabitacion);
+        if (destino == null || destino.getTipo() != origen.getTipo()) {
+            return -5; // Código de error: habitación de destino no válida
+        }
+        if ((destino != origen && !destino.isDisponible()) || hayConflicto(destino, anterior, nuevaEntrada, nuevaSalida)) {
+            return -4; // Código de error: la habitación de destino no está libre
+        }
+        TipoHabitacion tipo = origen.getTipo();
+        inventario.sumar(tipo, anterior.getFechaInicio(), anterior.getFechaFin(), 1);
+        if (!inventario.hayHueco(tipo, nuevaEntrada, nuevaSalida)) {
+            inventario.sumar(tipo, anterior.getFechaInicio(), anterior.getFechaFin(), -1);
+            return -4; // Código de error: el tipo está completo alguna de las noches nuevas
+        }
+        inventario.sumar(tipo, nuevaEntrada, nuevaSalida, -1);
+
+        Reserva nueva = new Reserva(reservaId, destino, anterior.getCliente(), nuevaEntrada, nuevaSalida,
+                tarifas.importe(destino, nuevaEntrada, nuevaSalida));
+        List<Reserva> reservasOrigen = reservasPorHabitacion.get(origen.getNumero());
+        reservasOrigen.remove(reservasOrigen.size() - 1);
+        if (destino != origen) {
+            destino.reservar();
+        }
+        reservasPorHabitacion.get(destino.getNumero()).add(nueva);
+        indiceReservas.reemplazar(anterior, nueva);
+        indiceAsignacion.fijarFin(destino.getNumero(), nuevaSalida);
+        salidas.programar(nueva); // La entrada de la reserva anterior se descarta al salir
+        instantanea = instantanea.conReservaModificada(nueva);
+        publicarEvento(TipoEvento.RESERVA_MODIFICADA, destino, nueva.getCliente(), nueva);
+        if (destino != origen) {
+            // Se libera después de publicar la modificación para que la réplica la aplique primero
+            indiceAsignacion.fijarFin(origen.getNumero(),
+                    reservasOrigen.isEmpty() ? null : reservasOrigen.get(reservasOrigen.size() - 1).getFechaFin());
+            dejarLibre(origen);
+        }
+        return destino.getNumero();
+    }
+
+    /**
+     * Comprueba si alguna otra reserva de la habitación se solapa con las fechas
+     * @param habitacion Habitación a comprobar
+     * @param excluida Reserva que se está modificando
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return true si hay solape
+     */
+    private boolean hayConflicto(Habitacion habitacion, Reserva excluida, LocalDate entrada, LocalDate salida) {
+        for (Reserva reserva : reservasPorHabitacion.get(habitacion.getNumero())) {
+            if (reserva != excluida && reserva.getFechaInicio().isBefore(salida)
+                    && reserva.getFechaFin().isAfter(entrada)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //|---- RETENCIONES ----|
+
+    /**
+     * Retiene una habitación mientras el cliente completa la reserva. La habitación deja
+     * de estar disponible enseguida y vuelve a estarlo sola si no se confirma a tiempo
+     * @param clienteId "ID" del cliente que retiene la habitación
+     * @param tipo Tipo de habitación solicitada
+     * @param fechaEntrada Fecha de inicio de la estadía
+     * @param fechaSalida Fecha de fin de la estadía
+     * @param duracion Tiempo que se mantiene la retención
+     * @return ID de la retención o el mismo código de error negativo que reservarHabitacion
+     * @throws IllegalArgumentException si la duración no es positiva o el tipo o alguna fecha es nula
+     */
+    public int retenerHabitacion(int clienteId, TipoHabitacion tipo, LocalDate fechaEntrada, LocalDate fechaSalida,
+                                 Duration duracion) {
+        if (duracion == null || duracion.isNegative() || duracion.isZero()) {
+            throw new IllegalArgumentException("La duración de la retención debe ser positiva");
+        }
+        validarPeticion(tipo, fechaEntrada, fechaSalida);
+        actualizarSegunReloj();
+        if (habitaciones.isEmpty()) {
+            return -1; // Código de error: no hay habitaciones
+        }
+        Cliente cliente = clientes.get(clienteId);
+        if (cliente == null) {
+            return -2; // Código de error: cliente no existe
+        }
+        if (fechaEntrada.isAfter(fechaSalida) || !inventario.cubre(fechaEntrada, fechaSalida)) {
+            return -3; // Código de error: fechas inválidas o fuera del calendario del hotel
+        }
+        if (!inventario.hayHueco(tipo, fechaEntrada, fechaSalida)) {
+            return -4; // Código de error: no hay habitaciones disponibles
+        }
+        Habitacion habitacion = estrategiaAsignacion.elegir(indiceAsignacion, tipo, fechaEntrada, fechaSalida);
+        if (habitacion == null) {
+            return -4; // Código de error: no hay habitaciones disponibles
+        }
+        habitacion.reservar();
+        inventario.sumar(tipo, fechaEntrada, fechaSalida, -1);
+        instantanea = instantanea.conDisponibilidad(habitacion.getNumero(), false);
+        return retenciones.crear(habitacion, cliente, fechaEntrada, fechaSalida,
+                reloj.millis() + duracion.toMillis()).id;
+    }
+
+    /**
+     * Convierte una retención en una reserva sobre la misma habitación
+     * @param idRetencion ID de la retención
+     * @return Número de habitación reservada o -7 si la retención no existe o ha caducado
+     */
+    public int confirmarRetencion(int idRetencion) {
+        procesarRetencionesCaducadas();
+        GestorRetenciones.Retencion retencion = retenciones.quitar(idRetencion);
+        if (retencion == null) {
+            return -7; // Código de error: retención inexistente o caducada
+        }
+        actualizarEstadoVipCliente(retencion.cliente);
+        registrarReserva(retencion.habitacion, retencion.cliente, retencion.fechaEntrada, retencion.fechaSalida);
+        return retencion.habitacion.getNumero();
+    }
+
+    /**
+     * Cancela una retención y deja la habitación libre
+     * @param idRetencion ID de la retención
+     * @return true si se canceló, false si no existía o ya había caducado
+     */
+    public boolean cancelarRetencion(int idRetencion) {
+        GestorRetenciones.Retencion retencion = retenciones.quitar(idRetencion);
+        if (retencion == null) {
+            return false;
+        }
+        devolverInventario(retencion);
+        dejarLibre(retencion.habitacion);
+        return true;
+    }
+
+    /**
+     * Libera las habitaciones de las retenciones que han caducado según el reloj del hotel.
+     * Se llama al reservar y retener, pero también se puede llamar periódicamente
+     * @return Número de retenciones caducadas
+     */
+    public int procesarRetencionesCaducadas() {
+        return retenciones.caducar(reloj.millis(), retencion -> {
+            devolverInventario(retencion);
+            dejarLibre(retencion.habitacion);
+        });
+    }
+
+    /**
+     * Devuelve al inventario las noches de una retención que no se va a confirmar
+     * @param retencion Retención quitada
+     */
+    private void devolverInventario(GestorRetenciones.Retencion retencion) {
+        inventario.sumar(retencion.habitacion.getTipo(), retencion.fechaEntrada, retencion.fechaSalida, 1);
+    }
+
+    /**
+     * Libera las habitaciones cuyas estancias han terminado según el reloj del hotel.
+     * Solo se libera una habitación si la reserva que termina sigue siendo la suya.
+     * Se llama al reservar y retener, pero también se puede llamar periódicamente
+     * @return Número de habitaciones liberadas
+     */
+    public int procesarSalidas() {
+        return salidas.procesar(LocalDate.now(reloj).toEpochDay(), reserva -> {
+            if (!esActiva(reserva)) {
+                return false; // La habitación ya es de otra estancia o está libre
+            }
+            liberarHabitacion(reserva.getHabitacion().getNumero());
+            return true;
+        });
+    }
+
+    /**
+     * Indica si una reserva es la que ocupa ahora su habitación
+     * @param reserva Reserva a comprobar
+     * @return true si la habitación no está libre ni retenida y esta es su última reserva
+     */
+    private boolean esActiva(Reserva reserva) {
+        Habitacion habitacion = reserva.getHabitacion();
+        List<Reserva> reservas = reservasPorHabitacion.get(habitacion.getNumero());
+        return !habitacion.isDisponible() && !retenciones.retenida(habitacion.getNumero())
+                && reservas.get(reservas.size() - 1) == reserva;
+    }
+
+    /**
+     * Aplica lo que haya vencido según el reloj: retenciones caducadas y salidas del día
+     */
+    void actualizarSegunReloj() {
+        procesarRetencionesCaducadas();
+        procesarSalidas();
+    }
+
+    /**
+     * Número de retenciones pendientes de confirmar
+     * @return Retenciones activas
+     */
+    public int getRetencionesActivas() {
+        return retenciones.activas();
+    }
+
+    /**
+     * Reserva habitaciones para un grupo repartiéndolo según la capacidad de cada tipo.
+     * Se reservan todas las habitaciones o ninguna
+     * @param clienteId "ID" del cliente que reserva para el grupo
+     * @param personas Número de personas del grupo
+     * @param fechaEntrada Fecha de inicio de la estadía
+     * @param fechaSalida Fecha de fin de la estadía
+     * @param presupuesto Importe máximo que se puede pagar en total
+     * @param criterio Si se busca el menor precio o el menor número de habitaciones.
+     * Si la opción con menos habitaciones supera el presupuesto se usa la más barata
+     * @return Resultado con las reservas creadas o el código de error: -1 no hay habitaciones,
+     * -2 cliente no existe, -3 datos inválidos, -4 capacidad insuficiente, -5 supera el presupuesto
+     */
+    public ReservaGrupo reservarGrupo(int clienteId, int personas, LocalDate fechaEntrada, LocalDate fechaSalida,
+                                      double presupuesto, CriterioGrupo criterio) {
+        actualizarSegunReloj();
+        if (habitaciones.isEmpty()) {
+            return ReservaGrupo.error(-1);
+        }
+        Cliente cliente = clientes.get(clienteId);
+        if (cliente == null) {
+            return ReservaGrupo.error(-2);
+        }
+        if (personas <= 0 || !fechaEntrada.isBefore(fechaSalida) || criterio == null
+                || !inventario.cubre(fechaEntrada, fechaSalida)) {
+            return ReservaGrupo.error(-3);
+        }
+
+        List<Habitacion> plan = planificadorGrupos.planificar(personas, fechaEntrada, fechaSalida, criterio);
+        if (plan == null) {
+            return ReservaGrupo.error(-4);
+        }
+        if (precioGrupo(plan, fechaEntrada, fechaSalida, cliente) > presupuesto && criterio != CriterioGrupo.MAS_BARATO) {
+            plan = planificadorGrupos.planificar(personas, fechaEntrada, fechaSalida, CriterioGrupo.MAS_BARATO);
+        }
+        if (precioGrupo(plan, fechaEntrada, fechaSalida, cliente) > presupuesto) {
+            return ReservaGrupo.error(-5);
+        }
+        if (!hayHuecoParaGrupo(plan, fechaEntrada, fechaSalida)) {
+            return ReservaGrupo.error(-4); // Alguna noche no tiene sitio para todas las habitaciones de un tipo
+        }
+
+        // Todas las habitaciones del plan están disponibles y hay sitio: a partir de aquí no puede fallar
+        actualizarEstadoVipCliente(cliente);
+        List<Reserva> reservas = new ArrayList<>();
+        double total = 0;
+        for (Habitacion habitacion : plan) {
+            Reserva reserva = crearReserva(habitacion, cliente, fechaEntrada, fechaSalida);
+            reservas.add(reserva);
+            total += reserva.getPrecioTotal();
+        }
+        return new ReservaGrupo(0, reservas, total);
+    }
+
+    /**
+     * Comprueba en el inventario diario que cada tipo del plan tiene, en todas las noches,
+     * tantas unidades libres como habitaciones de ese tipo usa el plan
+     */
+    private boolean hayHuecoParaGrupo(List<Habitacion> plan, LocalDate entrada, LocalDate salida) {
+        int[] porTipo = new int[TipoHabitacion.values().length];
+        for (Habitacion habitacion : plan) {
+            porTipo[habitacion.getTipo().ordinal()]++;
+        }
+        for (TipoHabitacion tipo : TipoHabitacion.values()) {
+            if (porTipo[tipo.ordinal()] > 0 && !inventario.hayHueco(tipo, entrada, salida, porTipo[tipo.ordinal()])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcula lo que costaría un plan de grupo con los descuentos del cliente
+     */
+    private double precioGrupo(List<Habitacion> plan, LocalDate entrada, LocalDate salida, Cliente cliente) {
+        long centimos = 0;
+        for (Habitacion habitacion : plan) {
+            centimos += tarifas.importeCentimos(habitacion, entrada, salida);
+        }
+        int noches = (int) (salida.toEpochDay() - entrada.toEpochDay());
+        return Reserva.aplicarDescuentos(centimos / 100.0, noches, cliente.isEsVip());
+    }
+
+    /**
+     * Realiza una reserva y, si no hay habitaciones del tipo (código -4), deja
+     * la petición en lista de espera hasta que se libere una habitación
+     * @param clienteId "ID" del cliente que realiza la reserva
+     * @param tipo Tipo de habitación solicitada
+     * @param fechaEntrada Fecha de inicio de la estadía
+     * @param fechaSalida Fecha de fin de la estadía
+     * @return Futuro con el número de habitación asignada o un código de error negativo.
+     * Se completa en el hilo que libera la habitación, o con -3 si las fechas pasan mientras espera
+     */
+    public CompletableFuture<Integer> reservarOEsperar(int clienteId, TipoHabitacion tipo,
+                                                       LocalDate fechaEntrada, LocalDate fechaSalida) {
+        int resultado = reservarHabitacion(clienteId, tipo, fechaEntrada, fechaSalida);
+        if (resultado != -4) {
+            return CompletableFuture.completedFuture(resultado);
+        }
+        return listaEspera.encolar(clientes.get(clienteId), tipo, fechaEntrada, fechaSalida);
+    }
+
+    /**
+     * Asigna una habitación liberada a la mejor petición en espera de su tipo
+     * cuyas fechas se puedan reservar ahora
+     * @param tipo Tipo de la habitación liberada
+     */
+    private void asignarListaEspera(TipoHabitacion tipo) {
+        ListaEspera.Solicitud solicitud = listaEspera.siguiente(tipo, LocalDate.now(reloj),
+                espera -> inventario.hayHueco(tipo, espera.fechaEntrada, espera.fechaSalida)
+                        && estrategiaAsignacion.elegir(indiceAsignacion, tipo,
+                                espera.fechaEntrada, espera.fechaSalida) != null);
+        if (solicitud != null) {
+            int resultado = reservarHabitacion(solicitud.cliente.getId(), tipo,
+                    solicitud.fechaEntrada, solicitud.fechaSalida);
+            solicitud.resultado.complete(resultado);
+        }
+    }
+
+    /**
+     * Obtiene la lista de espera del hotel
+     * @return Lista de espera
+     */
+    public ListaEspera getListaEspera() {
+        return listaEspera;
+    }
+
+    /**
+     * Aplica en una réplica la reserva recibida del primario sobre la misma habitación
+     * @param numeroHabitacion Habitación que asignó el primario
+     * @param clienteId "ID" del cliente
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return ID de la reserva creada o -1 si no se pudo aplicar
+     */
+    int aplicarReservaReplicada(int numeroHabitacion, int clienteId, LocalDate entrada, LocalDate salida) {
+        Habitacion habitacion = obtenerHabitacion(numeroHabitacion);
+        Cliente cliente = clientes.get(clienteId);
+        if (habitacion == null || cliente == null || !habitacion.isDisponible()) {
+            return -1;
+        }
+        actualizarEstadoVipCliente(cliente);
+        return crearReserva(habitacion, cliente, entrada, salida).getId();
+    }
+
     /**
      * Actualiza el estado VIP de un cliente que ha tenido más de 3 reservas
      * @param cliente Cliente a verificar
@@ -139,7 +854,7 @@ public class Hotel {
     private void actualizarEstadoVipCliente(Cliente cliente) {
         if (!cliente.isEsVip() && contarReservasUltimoAnio(cliente) > 3) {
             cliente.setEsVip(true);
-            System.out.println("Cliente " + cliente.getNombre() + " actualizado a VIP");
+            mensajes.println("Cliente " + cliente.getNombre() + " actualizado a VIP");
         }
     }
 
@@ -150,15 +865,11 @@ public class Hotel {
      */
     private int contarReservasUltimoAnio(Cliente cliente) {
         int contador = 0;
-        LocalDate haceUnAnio = LocalDate.now().minusYears(1);
-
-        for (List<Reserva> reservas : reservasPorHabitacion.values()) {
-            for (Reserva reserva : reservas) {
-                if (Objects.equals(reserva.getCliente(), cliente)) {
-                    if (reserva.getFechaInicio().isAfter(haceUnAnio)) {
-                        contador++;
-                    }
-                }
+        LocalDate haceUnAnio = LocalDate.now(reloj).minusYears(1);
+
+        for (Reserva reserva : indiceReservas.deCliente(cliente.getId())) {
+            if (reserva.getFechaInicio().isAfter(haceUnAnio)) {
+                contador++;
             }
         }
         return contador;
@@ -170,28 +881,52 @@ public class Hotel {
      * @param cliente Cliente que reserva
      * @param entrada  Fecha de entrada
      * @param salida Fecha de salida
+     * @return La reserva creada
      */
-    private void crearReserva(Habitacion habitacion, Cliente cliente, LocalDate entrada, LocalDate salida) {
-        int nuevoId = reservasPorHabitacion.values().stream().mapToInt(List::size).sum() + 1;
-        Reserva reserva = new Reserva(nuevoId, habitacion, cliente, entrada, salida);
-        reservasPorHabitacion.get(habitacion.getNumero()).add(reserva);
+    private Reserva crearReserva(Habitacion habitacion, Cliente cliente, LocalDate entrada, LocalDate salida) {
         habitacion.reservar();
+        inventario.sumar(habitacion.getTipo(), entrada, salida, -1);
+        return registrarReserva(habitacion, cliente, entrada, salida);
+    }
+
+    /**
+     * Registra la reserva de una habitación que ya no está disponible, sin volver a reservarla
+     * @param habitacion Habitación reservada o retenida
+     * @param cliente Cliente que reserva
+     * @param entrada  Fecha de entrada
+     * @param salida Fecha de salida
+     * @return La reserva creada
+     */
+    private Reserva registrarReserva(Habitacion habitacion, Cliente cliente, LocalDate entrada, LocalDate salida) {
+        int nuevoId = instantanea.getReservas().size() + 1;
+        Reserva reserva = new Reserva(nuevoId, habitacion, cliente, entrada, salida,
+                tarifas.importe(habitacion, entrada, salida));
+        reservasPorHabitacion.get(habitacion.getNumero()).add(reserva);
+        indiceReservas.agregar(reserva);
+        indiceAsignacion.reservaCreada(reserva);
+        salidas.programar(reserva);
+        instantanea = instantanea.conReserva(reserva);
+        publicarEvento(TipoEvento.RESERVA_CREADA, habitacion, cliente, reserva);
+        return reserva;
     }
 
     /**
      * Lista todas las reservas del hotel
      *
-     * @return
+     * @return Reservas agrupadas por número de habitación según la última instantánea
      */
     public Map<Integer, List<Reserva>> listarReservas() {
-        reservasPorHabitacion.forEach((key, value) -> {
-            System.out.println("Habitación #" + key);
-            value.forEach(reserva -> System.out.println(
-                "Reserva #" + reserva.getId() + " - Cliente: " + reserva.getCliente().nombre
-                    + " - Fecha de entrada: " + reserva.getFechaInicio()
-                    + " - Fecha de salida: " + reserva.getFechaFin()));
-        });
-        return null;
+        return instantanea.reservasPorHabitacion();
+    }
+
+    /**
+     * Empieza una consulta de reservas con filtros. Se ejecuta sobre los índices vivos,
+     * así que con varios hilos hay que seguir la misma regla que para escribir
+     *
+     * @return Consulta vacía lista para añadir filtros
+     */
+    public ConsultaReservas consultarReservas() {
+        return new ConsultaReservas(this, indiceReservas);
     }
 
     //|---- GESTIÓN DE CLIENTES ----|
@@ -199,14 +934,10 @@ public class Hotel {
     /**
      * Lista todos los clientes registrados en el sistema
      *
-     * @return
+     * @return Clientes ordenados por ID según la última instantánea
      */
     public List<Cliente> listarClientes() {
-        for(Cliente cliente : clientes.values()) {
-            System.out.println("Cliente #" + cliente.id + " - Nombre: " +
-                    cliente.nombre + " - DNI: " + cliente.dni + " - VIP: " + cliente.esVip);
-        }
-        return null;
+        return instantanea.getClientes();
     }
 
     /**
@@ -217,10 +948,42 @@ public class Hotel {
      * @param dni    DNI válido con ek formato español
      * @param esVip  Indica si el cliente es VIP o si no es VIP
      * @return
+     * @throws IllegalArgumentException si los datos no son válidos o el DNI o email ya están registrados
      */
     public Cliente registrarCliente(String nombre, String email, String dni, boolean esVip) {
         Cliente cliente = new Cliente(clientes.size() + 1, nombre, dni, email, esVip);
+        indiceClientes.registrar(cliente);
         clientes.put(cliente.id, cliente);
+        instantanea = instantanea.conCliente(cliente);
+        publicarEvento(TipoEvento.CLIENTE_REGISTRADO, null, cliente, null);
         return cliente;
     }
+
+    /**
+     * Busca un cliente por su DNI
+     * @param dni DNI del cliente
+     * @return El cliente o null si no existe
+     */
+    public Cliente buscarClientePorDni(String dni) {
+        return indiceClientes.buscarPorDni(dni);
+    }
+
+    /**
+     * Busca un cliente por su email
+     * @param email Email del cliente
+     * @return El cliente o null si no existe
+     */
+    public Cliente buscarClientePorEmail(String email) {
+        return indiceClientes.buscarPorEmail(email);
+    }
+
+    /**
+     * Busca clientes cuyo nombre empieza por el texto indicado
+     * @param prefijo Comienzo del nombre
+     * @param limite Número máximo de resultados
+     * @return Clientes encontrados ordenados por nombre
+     */
+    public List<Cliente> buscarClientesPorNombre(String prefijo, int limite) {
+        return indiceClientes.buscarPorPrefijo(prefijo, limite);
+    }
 }
@@ -42,6 +42,7 @@ public class HotelCLI {
     public void inicio() {
         int opcion;
         do {
+            hotel.procesarSalidas();
             muestra.MenuPrincipal();
             opcion = inMenuPrincipal.leer("Seleccione una opción (1-4):");
             switchMenuPrincipal(opcion);
@@ -0,0 +1,196 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Clase que mantiene los índices en los que se apoyan las estrategias de asignación.
+ * Solo contiene habitaciones disponibles, ordenadas por precio y por el día en que
+ * terminó su última reserva, para que cada decisión cueste O(log n). Las habitaciones
+ * con tarifa propia se guardan aparte, porque su importe no sigue a su precio base
+ */
+public class IndiceAsignacion implements ObservadorDisponibilidad {
+    private static final long NUNCA_RESERVADA = Long.MIN_VALUE;
+    private static final Comparator<Habitacion> POR_PRECIO =
+            Comparator.comparingDouble(Habitacion::getPrecioBase).thenComparingInt(Habitacion::getNumero);
+
+    private final DisponibilidadHabitaciones disponibilidad;
+    private final CalendarioTarifas tarifas;
+    private final Map<TipoHabitacion, TreeSet<Habitacion>> porPrecio = new EnumMap<>(TipoHabitacion.class); // Sin tarifa propia
+    private final Map<TipoHabitacion, List<Habitacion>> conTarifaPropia = new EnumMap<>(TipoHabitacion.class);
+    private final BitSet propias = new BitSet(); // Números de las habitaciones con tarifa propia
+    private final Map<TipoHabitacion, TreeMap<Long, TreeMap<Integer, Habitacion>>> porFinUltimaReserva =
+            new EnumMap<>(TipoHabitacion.class);
+    private final Map<Integer, Long> finUltimaReserva = new HashMap<>();
+
+    /**
+     * Constructor del índice
+     * @param disponibilidad Vistas de disponibilidad del hotel, usadas por el primer ajuste
+     * @param tarifas Calendario de tarifas del hotel, usado para buscar la más barata
+     */
+    IndiceAsignacion(DisponibilidadHabitaciones disponibilidad, CalendarioTarifas tarifas) {
+        this.disponibilidad = disponibilidad;
+        this.tarifas = tarifas;
+        for (TipoHabitacion tipo : TipoHabitacion.values()) {
+            porPrecio.put(tipo, new TreeSet<>(POR_PRECIO));
+            conTarifaPropia.put(tipo, new ArrayList<>());
+            porFinUltimaReserva.put(tipo, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Habitación disponible con el número más bajo
+     * @param tipo Tipo de habitación
+     * @return La habitación o null si no hay ninguna
+     */
+    public Habitacion primeraDisponible(TipoHabitacion tipo) {
+        return disponibilidad.vista(tipo).primera();
+    }
+
+    /**
+     * Habitación disponible con el importe más bajo para una estancia según el calendario
+     * de tarifas. Las habitaciones sin tarifa propia pagan la del tipo, así que entre ellas
+     * la más barata es la primera por precio base; solo hace falta calcular además el
+     * importe de las del tipo que tienen tarifa propia. No crea objetos
+     * @param tipo Tipo de habitación
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return La habitación o null si no hay ninguna
+     */
+    public Habitacion masBarata(TipoHabitacion tipo, LocalDate entrada, LocalDate salida) {
+        TreeSet<Habitacion> habitaciones = porPrecio.get(tipo);
+        Habitacion elegida = habitaciones.isEmpty() ? null : habitaciones.first();
+        long importe = elegida == null ? Long.MAX_VALUE : tarifas.importeCentimos(elegida, entrada, salida);
+        List<Habitacion> propiasDelTipo = conTarifaPropia.get(tipo);
+        for (int i = 0; i < propiasDelTipo.size(); i++) {
+            Habitacion habitacion = propiasDelTipo.get(i);
+            if (!habitacion.isDisponible()) {
+                continue;
+            }
+            long propio = tarifas.importeCentimos(habitacion, entrada, salida);
+            if (propio < importe || (propio == importe && POR_PRECIO.compare(habitacion, elegida) < 0)) {
+                elegida = habitacion;
+                importe = propio;
+            }
+        }
+        return elegida;
+    }
+
+    /**
+     * Habitaciones disponibles más baratas de un tipo para una estancia según el calendario
+     * de tarifas. Como en masBarata, de las que no tienen tarifa propia basta con las primeras
+     * por precio base; se juntan con las del tipo que tienen tarifa propia y se ordenan por importe
+     * @param tipo Tipo de habitación
+     * @param limite Número máximo de habitaciones
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return Habitaciones ordenadas de menor a mayor importe
+     */
+    public List<Habitacion> masBaratas(TipoHabitacion tipo, int limite, LocalDate entrada, LocalDate salida) {
+        List<Habitacion> resultado = new ArrayList<>();
+        for (Habitacion habitacion : porPrecio.get(tipo)) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            resultado.add(habitacion);
+        }
+        int sinTarifaPropia = resultado.size();
+        for (Habitacion habitacion : conTarifaPropia.get(tipo)) {
+            if (habitacion.isDisponible()) {
+                resultado.add(habitacion);
+            }
+        }
+        if (resultado.size() == sinTarifaPropia) {
+            return resultado; // Ya están ordenadas por importe
+        }
+        resultado.sort(Comparator.<Habitacion>comparingLong(h -> tarifas.importeCentimos(h, entrada, salida))
+                .thenComparing(POR_PRECIO));
+        return resultado.size() > limite ? resultado.subList(0, limite) : resultado;
+    }
+
+    /**
+     * Habitación cuyo hueco libre antes de la entrada es más ajustado: la que terminó
+     * su última reserva más cerca de la fecha de entrada sin pasarse. Como se guarda el fin
+     * más tardío de cada habitación, ninguna de sus estancias es posterior a ese hueco, así
+     * que el hueco anterior es el único que deja la nueva estancia
+     * @param tipo Tipo de habitación
+     * @param entrada Fecha de entrada de la nueva estancia
+     * @return La habitación o null si todas las disponibles tienen estancias que
+     * terminan después de la entrada y se solaparían con la nueva
+     */
+    public Habitacion mejorAjuste(TipoHabitacion tipo, LocalDate entrada) {
+        Map.Entry<Long, TreeMap<Integer, Habitacion>> hueco =
+                porFinUltimaReserva.get(tipo).floorEntry(entrada.toEpochDay());
+        return hueco == null ? null : hueco.getValue().firstEntry().getValue();
+    }
+
+    /**
+     * Anota el fin de una reserva nueva. Se llama con la habitación ya ocupada,
+     * es decir, cuando no está en los índices
+     * @param reserva Reserva creada
+     */
+    void reservaCreada(Reserva reserva) {
+        finUltimaReserva.merge(reserva.getHabitacion().getNumero(), reserva.getFechaFin().toEpochDay(), Math::max);
+    }
+
+    /**
+     * Fija el fin de la última reserva de una habitación tras modificar una reserva.
+     * La habitación no debe estar disponible, así no está en los índices
+     * @param numero Número de la habitación
+     * @param fin Fin de su última reserva o null si ya no tiene ninguna
+     */
+    void fijarFin(int numero, LocalDate fin) {
+        if (fin == null) {
+            finUltimaReserva.remove(numero);
+        } else {
+            finUltimaReserva.put(numero, fin.toEpochDay());
+        }
+    }
+
+    /**
+     * Anota que una habitación tiene tarifa propia. Desde entonces se busca aparte
+     * de las que se ordenan por precio base
+     * @param habitacion Habitación a la que se fijó una tarifa propia
+     */
+    void tarifaPropia(Habitacion habitacion) {
+        if (propias.get(habitacion.getNumero())) {
+            return;
+        }
+        propias.set(habitacion.getNumero());
+        conTarifaPropia.get(habitacion.getTipo()).add(habitacion);
+        porPrecio.get(habitacion.getTipo()).remove(habitacion);
+    }
+
+    @Override
+    public void disponibilidadCambiada(Habitacion habitacion, boolean disponible) {
+        TipoHabitacion tipo = habitacion.getTipo();
+        long fin = finUltimaReserva.getOrDefault(habitacion.getNumero(), NUNCA_RESERVADA);
+        TreeMap<Long, TreeMap<Integer, Habitacion>> indice = porFinUltimaReserva.get(tipo);
+        boolean sinTarifaPropia = !propias.get(habitacion.getNumero());
+        if (disponible) {
+            if (sinTarifaPropia) {
+                porPrecio.get(tipo).add(habitacion);
+            }
+            indice.computeIfAbsent(fin, f -> new TreeMap<>()).put(habitacion.getNumero(), habitacion);
+        } else {
+            if (sinTarifaPropia) {
+                porPrecio.get(tipo).remove(habitacion);
+            }
+            TreeMap<Integer, Habitacion> grupo = indice.get(fin);
+            if (grupo != null) {
+                grupo.remove(habitacion.getNumero());
+                if (grupo.isEmpty()) {
+                    indice.remove(fin);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.ed06.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Clase que mantiene los índices secundarios de clientes: tablas hash por DNI y
+ * email normalizados y un índice ordenado por nombre para búsquedas por prefijo
+ */
+public class IndiceClientes {
+    private final Map<String, Cliente> porDni = new HashMap<>();
+    private final Map<String, Cliente> porEmail = new HashMap<>();
+    // Clave: nombre normalizado + separador + id, así admite nombres repetidos
+    private final NavigableMap<String, Cliente> porNombre = new TreeMap<>();
+
+    private static final char SEPARADOR = '\u0000';
+
+    /**
+     * Registra un cliente en todos los índices
+     * @param cliente Cliente a registrar
+     * @throws IllegalArgumentException si ya existe un cliente con el mismo DNI o email
+     */
+    void registrar(Cliente cliente) {
+        String dni = normalizarDni(cliente.getDni());
+        String email = normalizarEmail(cliente.getEmail());
+        comprobarLibre(porDni, dni, cliente, "DNI");
+        comprobarLibre(porEmail, email, cliente, "email");
+        porDni.put(dni, cliente);
+        porEmail.put(email, cliente);
+        porNombre.put(claveNombre(cliente.getNombre(), cliente.getId()), cliente);
+        cliente.indice = this;
+    }
+
+    /**
+     * Actualiza el índice antes de cambiar el DNI de un cliente
+     * @param cliente Cliente que cambia
+     * @param nuevo Nuevo DNI
+     * @throws IllegalArgumentException si el DNI pertenece a otro cliente
+     */
+    void cambiarDni(Cliente cliente, String nuevo) {
+        String clave = normalizarDni(nuevo);
+        comprobarLibre(porDni, clave, cliente, "DNI");
+        porDni.remove(normalizarDni(cliente.getDni()));
+        porDni.put(clave, cliente);
+    }
+
+    /**
+     * Actualiza el índice antes de cambiar el email de un cliente
+     * @param cliente Cliente que cambia
+     * @param nuevo Nuevo email
+     * @throws IllegalArgumentException si el email pertenece a otro cliente
+     */
+    void cambiarEmail(Cliente cliente, String nuevo) {
+        String clave = normalizarEmail(nuevo);
+        comprobarLibre(porEmail, clave, cliente, "email");
+        porEmail.remove(normalizarEmail(cliente.getEmail()));
+        porEmail.put(clave, cliente);
+    }
+
+    /**
+     * Actualiza el índice antes de cambiar el nombre de un cliente
+     * @param cliente Cliente que cambia
+     * @param nuevo Nuevo nombre
+     */
+    void cambiarNombre(Cliente cliente, String nuevo) {
+        porNombre.remove(claveNombre(cliente.getNombre(), cliente.getId()));
+        porNombre.put(claveNombre(nuevo, cliente.getId()), cliente);
+    }
+
+    /**
+     * Busca un cliente por DNI
+     * @param dni DNI a buscar, sin importar mayúsculas ni espacios
+     * @return El cliente o null si no existe
+     */
+    public Cliente buscarPorDni(String dni) {
+        return dni == null ? null : porDni.get(normalizarDni(dni));
+    }
+
+    /**
+     * Busca un cliente por email
+     * @param email Email a buscar, sin importar mayúsculas ni espacios
+     * @return El cliente o null si no existe
+     */
+    public Cliente buscarPorEmail(String email) {
+        return email == null ? null : porEmail.get(normalizarEmail(email));
+    }
+
+    /**
+     * Busca clientes cuyo nombre empieza por un prefijo, sin importar mayúsculas ni tildes
+     * @param prefijo Comienzo del nombre
+     * @param limite Número máximo de resultados
+     * @return Clientes ordenados por nombre
+     */
+    public List<Cliente> buscarPorPrefijo(String prefijo, int limite) {
+        List<Cliente> resultado = new ArrayList<>();
+        if (prefijo == null || limite <= 0) {
+            return resultado;
+        }
+        String desde = normalizarNombre(prefijo);
+        for (Map.Entry<String, Cliente> entrada : porNombre.tailMap(desde, true).entrySet()) {
+            if (!entrada.getKey().startsWith(desde) || resultado.size() >= limite) {
+                break;
+            }
+            resultado.add(entrada.getValue());
+        }
+        return resultado;
+    }
+
+    /**
+     * Comprueba que una clave no esté ocupada por otro cliente
+     */
+    private static void comprobarLibre(Map<String, Cliente> indice, String clave, Cliente cliente, String campo) {
+        Cliente existente = indice.get(clave);
+        if (existente != null && existente != cliente) {
+            throw new IllegalArgumentException("Ya existe un cliente con ese " + campo + " (ID " + existente.getId() + ")");
+        }
+    }
+
+    private static String claveNombre(String nombre, int id) {
+        return normalizarNombre(nombre) + SEPARADOR + id;
+    }
+
+    static String normalizarDni(String dni) {
+        return dni.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static String normalizarEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizarNombre(String nombre) {
+        String sinTildes = Normalizer.normalize(nombre.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,146 @@
+package org.ed06.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Clase que mantiene los índices secundarios de reservas por cliente, por tipo de
+ * habitación y por fecha de entrada. El índice por habitación es el del propio hotel
+ */
+class IndiceReservas {
+    private final Map<Integer, List<Reserva>> porHabitacion;
+    private final Map<Integer, List<Reserva>> porCliente = new HashMap<>();
+    private final Map<TipoHabitacion, List<Reserva>> porTipo = new EnumMap<>(TipoHabitacion.class);
+    private final TreeMap<Long, List<Reserva>> porFechaEntrada = new TreeMap<>();
+    private long duracionMaxima; // Noches de la estancia más larga, acota la búsqueda por fecha
+    private int total;
+    // Posición de cada reserva (por ID) en sus listas, para sustituirla en O(1) al modificarla
+    private int[] posicionCliente = new int[64];
+    private int[] posicionTipo = new int[64];
+    private int[] posicionFecha = new int[64];
+
+    /**
+     * Constructor del índice
+     * @param porHabitacion Reservas por habitación que ya mantiene el hotel
+     */
+    IndiceReservas(Map<Integer, List<Reserva>> porHabitacion) {
+        this.porHabitacion = porHabitacion;
+    }
+
+    /**
+     * Añade una reserva nueva a los índices
+     * @param reserva Reserva creada
+     */
+    void agregar(Reserva reserva) {
+        int id = reserva.getId();
+        if (id >= posicionCliente.length) {
+            int capacidad = Math.max(id + 1, posicionCliente.length * 2);
+            posicionCliente = Arrays.copyOf(posicionCliente, capacidad);
+            posicionTipo = Arrays.copyOf(posicionTipo, capacidad);
+            posicionFecha = Arrays.copyOf(posicionFecha, capacidad);
+        }
+        posicionCliente[id] = anadir(porCliente.computeIfAbsent(reserva.getCliente().getId(), c -> new ArrayList<>()),
+                reserva);
+        posicionTipo[id] = anadir(porTipo.computeIfAbsent(reserva.getHabitacion().getTipo(), t -> new ArrayList<>()),
+                reserva);
+        agregarPorFecha(reserva);
+        total++;
+    }
+
+    /**
+     * Sustituye una reserva modificada por su nueva versión, con el mismo ID, cliente y tipo
+     * @param anterior Reserva que se sustituye
+     * @param nueva Reserva con los datos nuevos
+     */
+    void reemplazar(Reserva anterior, Reserva nueva) {
+        int id = anterior.getId();
+        porCliente.get(anterior.getCliente().getId()).set(posicionCliente[id], nueva);
+        porTipo.get(anterior.getHabitacion().getTipo()).set(posicionTipo[id], nueva);
+        long entrada = anterior.getFechaInicio().toEpochDay();
+        List<Reserva> grupo = porFechaEntrada.get(entrada);
+        if (entrada == nueva.getFechaInicio().toEpochDay()) {
+            grupo.set(posicionFecha[id], nueva);
+            duracionMaxima = Math.max(duracionMaxima, nueva.getFechaFin().toEpochDay() - entrada);
+            return;
+        }
+        // Cambia de día de entrada: se quita del grupo moviendo la última a su hueco
+        Reserva ultima = grupo.remove(grupo.size() - 1);
+        if (ultima != anterior) {
+            grupo.set(posicionFecha[id], ultima);
+            posicionFecha[ultima.getId()] = posicionFecha[id];
+        }
+        if (grupo.isEmpty()) {
+            porFechaEntrada.remove(entrada);
+        }
+        agregarPorFecha(nueva);
+    }
+
+    private void agregarPorFecha(Reserva reserva) {
+        long entrada = reserva.getFechaInicio().toEpochDay();
+        posicionFecha[reserva.getId()] = anadir(porFechaEntrada.computeIfAbsent(entrada, d -> new ArrayList<>()),
+                reserva);
+        duracionMaxima = Math.max(duracionMaxima, reserva.getFechaFin().toEpochDay() - entrada);
+    }
+
+    private static int anadir(List<Reserva> lista, Reserva reserva) {
+        lista.add(reserva);
+        return lista.size() - 1;
+    }
+
+    //|---- ACCESO ----|
+
+    int total() {
+        return total;
+    }
+
+    List<Reserva> deCliente(int clienteId) {
+        return porCliente.getOrDefault(clienteId, Collections.emptyList());
+    }
+
+    List<Reserva> deHabitacion(int numero) {
+        return porHabitacion.getOrDefault(numero, Collections.emptyList());
+    }
+
+    List<Reserva> deTipo(TipoHabitacion tipo) {
+        return porTipo.getOrDefault(tipo, Collections.emptyList());
+    }
+
+    /**
+     * Grupos de reservas cuya entrada puede solapar con el rango: las que entran
+     * antes de hasta y como mucho duracionMaxima días antes de desde
+     * @param desde Primer día del rango (época)
+     * @param hasta Día siguiente al último del rango (época)
+     * @return Listas de reservas agrupadas por día de entrada
+     */
+    NavigableMap<Long, List<Reserva>> candidatasPorFecha(long desde, long hasta) {
+        return porFechaEntrada.subMap(desde - duracionMaxima, true, hasta, false);
+    }
+
+    /**
+     * Estima cuántas reservas devuelve la búsqueda por fecha suponiendo
+     * entradas repartidas por igual entre la primera y la última fecha
+     * @param desde Primer día del rango (época)
+     * @param hasta Día siguiente al último del rango (época)
+     * @return Número estimado de candidatas
+     */
+    long estimarPorFecha(long desde, long hasta) {
+        if (porFechaEntrada.isEmpty()) {
+            return 0;
+        }
+        long primero = porFechaEntrada.firstKey();
+        long ultimo = porFechaEntrada.lastKey();
+        long inicio = Math.max(primero, desde - duracionMaxima);
+        long fin = Math.min(ultimo + 1, hasta);
+        if (fin <= inicio) {
+            return 0;
+        }
+        return Math.max(1, total * (fin - inicio) / (ultimo - primero + 1));
+    }
+}
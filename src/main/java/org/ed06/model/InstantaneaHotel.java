@@ -0,0 +1,114 @@
+package org.ed06.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Clase que representa una vista inmutable y versionada del hotel.
+ * Cada cambio del hotel publica una instantánea nueva que comparte estructura
+ * con la anterior, así los listados leen sin bloqueos mientras se sigue reservando.
+ * Las habitaciones y reservas no cambian; de los clientes se guarda la referencia,
+ * por lo que sus campos modificables (como el estado VIP) muestran el valor actual
+ */
+public final class InstantaneaHotel {
+    static final InstantaneaHotel VACIA = new InstantaneaHotel(0, VectorPersistente.vacio(),
+            VectorPersistente.vacio(), VectorPersistente.vacio(), VectorPersistente.vacio());
+
+    private final long version;
+    private final VectorPersistente<Habitacion> habitaciones;
+    private final VectorPersistente<Boolean> disponibles;
+    private final VectorPersistente<Cliente> clientes;
+    private final VectorPersistente<Reserva> reservas;
+
+    private InstantaneaHotel(long version, VectorPersistente<Habitacion> habitaciones,
+                             VectorPersistente<Boolean> disponibles, VectorPersistente<Cliente> clientes,
+                             VectorPersistente<Reserva> reservas) {
+        this.version = version;
+        this.habitaciones = habitaciones;
+        this.disponibles = disponibles;
+        this.clientes = clientes;
+        this.reservas = reservas;
+    }
+
+    //Getters
+    public long getVersion() {
+        return version;
+    }
+    public List<Habitacion> getHabitaciones() {
+        return habitaciones;
+    }
+    public List<Cliente> getClientes() {
+        return clientes;
+    }
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+
+    /**
+     * Indica si una habitación estaba disponible en esta versión
+     * @param numero Número de la habitación
+     * @return true si estaba disponible
+     */
+    public boolean isDisponible(int numero) {
+        return disponibles.get(numero - 1);
+    }
+
+    /**
+     * Lista las habitaciones que estaban disponibles en esta versión
+     * @return Habitaciones disponibles ordenadas por número
+     */
+    public List<Habitacion> habitacionesDisponibles() {
+        List<Habitacion> resultado = new ArrayList<>();
+        for (int i = 0; i < habitaciones.size(); i++) {
+            if (disponibles.get(i)) {
+                resultado.add(habitaciones.get(i));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrupa las reservas de esta versión por número de habitación
+     * @return Reservas por habitación, solo de las habitaciones que tienen alguna
+     */
+    public Map<Integer, List<Reserva>> reservasPorHabitacion() {
+        Map<Integer, List<Reserva>> resultado = new TreeMap<>();
+        for (Reserva reserva : reservas) {
+            resultado.computeIfAbsent(reserva.getHabitacion().getNumero(), n -> new ArrayList<>()).add(reserva);
+        }
+        return resultado;
+    }
+
+    //|---- VERSIONES NUEVAS ----|
+
+    InstantaneaHotel conHabitacion(Habitacion habitacion) {
+        return new InstantaneaHotel(version + 1, habitaciones.agregar(habitacion),
+                disponibles.agregar(habitacion.isDisponible()), clientes, reservas);
+    }
+
+    InstantaneaHotel conCliente(Cliente cliente) {
+        return new InstantaneaHotel(version + 1, habitaciones, disponibles, clientes.agregar(cliente), reservas);
+    }
+
+    /**
+     * Añade la reserva y marca su habitación como ocupada en una sola versión
+     */
+    InstantaneaHotel conReserva(Reserva reserva) {
+        return new InstantaneaHotel(version + 1, habitaciones,
+                disponibles.con(reserva.getHabitacion().getNumero() - 1, Boolean.FALSE), clientes,
+                reservas.agregar(reserva));
+    }
+
+    InstantaneaHotel conReservaModificada(Reserva reserva) {
+        return new InstantaneaHotel(version + 1, habitaciones,
+                disponibles.con(reserva.getHabitacion().getNumero() - 1, Boolean.FALSE), clientes,
+                reservas.con(reserva.getId() - 1, reserva));
+    }
+
+    InstantaneaHotel conDisponibilidad(int numero, boolean disponible) {
+        return new InstantaneaHotel(version + 1, habitaciones, disponibles.con(numero - 1, disponible),
+                clientes, reservas);
+    }
+}
@@ -0,0 +1,127 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Clase que lleva, por tipo de habitación, cuántas unidades quedan libres cada noche.
+ * Cada tipo tiene un árbol de segmentos sobre los días de una ventana fija, de modo que
+ * saber si queda alguna unidad en todas las noches de una estancia cuesta O(log días)
+ * y la curva de un año entero se obtiene de una vez.
+ * Las noches fuera de la ventana no se controlan: el hotel no acepta estancias que se salgan de ella
+ */
+public class InventarioDiario {
+    static final int DIAS = 1 << 12; // Algo más de once años
+
+    private final long origen;
+    private final Map<TipoHabitacion, ArbolSegmentos> arboles = new EnumMap<>(TipoHabitacion.class);
+
+    /**
+     * Constructor del inventario
+     * @param inicio Primer día de la ventana controlada
+     */
+    InventarioDiario(LocalDate inicio) {
+        this.origen = inicio.toEpochDay();
+        for (TipoHabitacion tipo : TipoHabitacion.values()) {
+            arboles.put(tipo, new ArbolSegmentos(DIAS));
+        }
+    }
+
+    //Getters
+    public LocalDate getInicio() {
+        return LocalDate.ofEpochDay(origen);
+    }
+    public LocalDate getFin() {
+        return LocalDate.ofEpochDay(origen + DIAS);
+    }
+
+    /**
+     * Suma unidades libres a todas las noches de [entrada, salida) dentro de la ventana
+     * @param tipo Tipo de habitación
+     * @param entrada Primera noche
+     * @param salida Día siguiente a la última noche
+     * @param unidades Unidades a sumar, negativas al ocupar
+     */
+    synchronized void sumar(TipoHabitacion tipo, LocalDate entrada, LocalDate salida, int unidades) {
+        arboles.get(tipo).sumar(posicion(entrada), posicion(salida), unidades);
+    }
+
+    /**
+     * Añade una unidad libre del tipo en todas las noches
+     * @param tipo Tipo de la habitación registrada
+     */
+    synchronized void habitacionRegistrada(TipoHabitacion tipo) {
+        arboles.get(tipo).sumar(0, DIAS, 1);
+    }
+
+    /**
+     * Indica si todas las noches de una estancia caen dentro de la ventana del inventario
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return true si el inventario puede responder por todas sus noches
+     */
+    public boolean cubre(LocalDate entrada, LocalDate salida) {
+        return entrada.toEpochDay() >= origen && salida.toEpochDay() <= origen + DIAS;
+    }
+
+    /**
+     * Indica si queda al menos una unidad del tipo en todas las noches de la estancia.
+     * Una estancia con noches fuera de la ventana se rechaza, porque de esas noches no se sabe nada
+     * @param tipo Tipo de habitación
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @return false si alguna noche está completa o fuera de la ventana
+     */
+    public boolean hayHueco(TipoHabitacion tipo, LocalDate entrada, LocalDate salida) {
+        return hayHueco(tipo, entrada, salida, 1);
+    }
+
+    /**
+     * Indica si quedan al menos tantas unidades del tipo en todas las noches de la estancia
+     * @param tipo Tipo de habitación
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @param unidades Unidades que se quieren ocupar a la vez
+     * @return false si alguna noche no tiene unidades suficientes o está fuera de la ventana
+     */
+    public boolean hayHueco(TipoHabitacion tipo, LocalDate entrada, LocalDate salida, int unidades) {
+        if (!cubre(entrada, salida)) {
+            return false;
+        }
+        int desde = posicion(entrada);
+        int hasta = posicion(salida);
+        if (desde >= hasta) {
+            return true;
+        }
+        synchronized (this) {
+            return arboles.get(tipo).minimo(desde, hasta) >= unidades;
+        }
+    }
+
+    /**
+     * Unidades libres del tipo en cada noche de un rango
+     * @param tipo Tipo de habitación
+     * @param desde Primera noche
+     * @param hasta Día siguiente a la última noche
+     * @return Unidades libres por noche, la posición 0 corresponde a desde
+     * @throws IllegalArgumentException si el rango se sale de la ventana
+     */
+    public int[] curva(TipoHabitacion tipo, LocalDate desde, LocalDate hasta) {
+        long inicio = desde.toEpochDay() - origen;
+        long fin = hasta.toEpochDay() - origen;
+        if (inicio < 0 || fin > DIAS || inicio > fin) {
+            throw new IllegalArgumentException("El rango debe estar entre " + getInicio() + " y " + getFin());
+        }
+        synchronized (this) {
+            return arboles.get(tipo).volcar((int) inicio, (int) fin);
+        }
+    }
+
+    /**
+     * Posición de un día en la ventana, recortada a sus extremos
+     */
+    private int posicion(LocalDate fecha) {
+        return (int) Math.max(0, Math.min(DIAS, fecha.toEpochDay() - origen));
+    }
+}
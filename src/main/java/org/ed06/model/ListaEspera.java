@@ -0,0 +1,139 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Clase que gestiona la lista de espera de reservas por tipo de habitación.
+ * Los clientes VIP van primero y, a igualdad, se respeta el orden de llegada.
+ * Cada tipo agrupa sus peticiones por fechas de entrada y salida: todas las de un grupo
+ * encajan o no a la vez, así que al liberar una habitación solo se mira la primera
+ * de cada grupo y el coste depende de cuántas fechas distintas esperan, no de cuántas peticiones
+ */
+public class ListaEspera {
+    // Tipo -> día de entrada -> día de salida -> peticiones con esas fechas
+    private final Map<TipoHabitacion, TreeMap<Long, TreeMap<Long, PriorityQueue<Solicitud>>>> colas =
+            new EnumMap<>(TipoHabitacion.class);
+    private long contador;
+
+    /**
+     * Clase que representa una petición de reserva en espera
+     */
+    static class Solicitud implements Comparable<Solicitud> {
+        final Cliente cliente;
+        final TipoHabitacion tipo;
+        final LocalDate fechaEntrada;
+        final LocalDate fechaSalida;
+        final CompletableFuture<Integer> resultado = new CompletableFuture<>();
+        private final boolean vip;
+        private final long orden;
+
+        Solicitud(Cliente cliente, TipoHabitacion tipo, LocalDate fechaEntrada, LocalDate fechaSalida, long orden) {
+            this.cliente = cliente;
+            this.tipo = tipo;
+            this.fechaEntrada = fechaEntrada;
+            this.fechaSalida = fechaSalida;
+            this.vip = cliente.isEsVip();
+            this.orden = orden;
+        }
+
+        @Override
+        public int compareTo(Solicitud otra) {
+            if (vip != otra.vip) {
+                return vip ? -1 : 1;
+            }
+            return Long.compare(orden, otra.orden);
+        }
+    }
+
+    /**
+     * Añade una petición a la cola de su tipo de habitación
+     * @param cliente Cliente que espera
+     * @param tipo Tipo de habitación solicitada
+     * @param fechaEntrada Fecha de entrada
+     * @param fechaSalida Fecha de salida
+     * @return Futuro que se completa con el número de habitación asignada
+     */
+    CompletableFuture<Integer> encolar(Cliente cliente, TipoHabitacion tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        Solicitud solicitud = new Solicitud(cliente, tipo, fechaEntrada, fechaSalida, contador++);
+        colas.computeIfAbsent(tipo, t -> new TreeMap<>())
+                .computeIfAbsent(fechaEntrada.toEpochDay(), e -> new TreeMap<>())
+                .computeIfAbsent(fechaSalida.toEpochDay(), s -> new PriorityQueue<>())
+                .add(solicitud);
+        return solicitud.resultado;
+    }
+
+    /**
+     * Extrae la mejor petición pendiente de un tipo que se pueda atender. Las peticiones
+     * canceladas por el llamante se descartan, las que ya no se pueden cumplir porque su
+     * entrada ha pasado se completan con -3 y las que no encajan siguen esperando en su sitio
+     * @param tipo Tipo de habitación liberada
+     * @param hoy Día actual según el reloj del hotel
+     * @param encaja Indica si las fechas de una petición se pueden reservar ahora
+     * @return La petición o null si ninguna de las que esperan encaja
+     */
+    Solicitud siguiente(TipoHabitacion tipo, LocalDate hoy, Predicate<Solicitud> encaja) {
+        TreeMap<Long, TreeMap<Long, PriorityQueue<Solicitud>>> porEntrada = colas.get(tipo);
+        if (porEntrada == null) {
+            return null;
+        }
+        // Reservarlas haría que la habitación se liberase enseguida y volviera a la cola
+        Map<Long, TreeMap<Long, PriorityQueue<Solicitud>>> pasadas = porEntrada.headMap(hoy.toEpochDay());
+        for (TreeMap<Long, PriorityQueue<Solicitud>> porSalida : pasadas.values()) {
+            for (PriorityQueue<Solicitud> grupo : porSalida.values()) {
+                for (Solicitud solicitud : grupo) {
+                    solicitud.resultado.complete(-3); // Código de error: las fechas ya han pasado
+                }
+            }
+        }
+        pasadas.clear();
+
+        PriorityQueue<Solicitud> mejorGrupo = null;
+        Iterator<TreeMap<Long, PriorityQueue<Solicitud>>> entradas = porEntrada.values().iterator();
+        while (entradas.hasNext()) {
+            TreeMap<Long, PriorityQueue<Solicitud>> porSalida = entradas.next();
+            Iterator<PriorityQueue<Solicitud>> grupos = porSalida.values().iterator();
+            while (grupos.hasNext()) {
+                PriorityQueue<Solicitud> grupo = grupos.next();
+                while (!grupo.isEmpty() && grupo.peek().resultado.isDone()) {
+                    grupo.poll(); // Cancelada por el llamante
+                }
+                if (grupo.isEmpty()) {
+                    grupos.remove();
+                } else if ((mejorGrupo == null || grupo.peek().compareTo(mejorGrupo.peek()) < 0)
+                        && encaja.test(grupo.peek())) {
+                    mejorGrupo = grupo;
+                }
+            }
+            if (porSalida.isEmpty()) {
+                entradas.remove();
+            }
+        }
+        return mejorGrupo == null ? null : mejorGrupo.poll();
+    }
+
+    /**
+     * Cuenta las peticiones en espera de un tipo (incluye canceladas y caducadas aún no descartadas)
+     * @param tipo Tipo de habitación
+     * @return Número de peticiones en la cola
+     */
+    public int pendientes(TipoHabitacion tipo) {
+        TreeMap<Long, TreeMap<Long, PriorityQueue<Solicitud>>> porEntrada = colas.get(tipo);
+        if (porEntrada == null) {
+            return 0;
+        }
+        int total = 0;
+        for (TreeMap<Long, PriorityQueue<Solicitud>> porSalida : porEntrada.values()) {
+            for (PriorityQueue<Solicitud> grupo : porSalida.values()) {
+                total += grupo.size();
+            }
+        }
+        return total;
+    }
+}
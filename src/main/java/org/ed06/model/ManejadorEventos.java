@@ -0,0 +1,15 @@
+package org.ed06.model;
+
+/** Interfaz que implementan los consumidores para procesar cada evento del hotel */
+@FunctionalInterface
+public interface ManejadorEventos {
+
+    /**
+     * Procesa un evento. La ranura se reutiliza, por lo que no debe guardarse
+     * la referencia al evento una vez terminado el método
+     * @param evento Evento publicado
+     * @param secuencia Secuencia del evento en el buffer
+     * @param finDeLote Indica si es el último evento del lote disponible
+     */
+    void alEvento(EventoHotel evento, long secuencia, boolean finDeLote);
+}
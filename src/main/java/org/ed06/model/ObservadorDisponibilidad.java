@@ -0,0 +1,12 @@
+package org.ed06.model;
+
+/** Interfaz para recibir los cambios de disponibilidad de una habitación */
+interface ObservadorDisponibilidad {
+
+    /**
+     * Se llama cada vez que una habitación se reserva o se libera
+     * @param habitacion Habitación que ha cambiado
+     * @param disponible Nuevo estado de la habitación
+     */
+    void disponibilidadCambiada(Habitacion habitacion, boolean disponible);
+}
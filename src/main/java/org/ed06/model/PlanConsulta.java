@@ -0,0 +1,12 @@
+package org.ed06.model;
+
+/**
+ * Enumeración con los caminos de acceso que puede elegir el planificador de consultas
+ */
+public enum PlanConsulta {
+    POR_CLIENTE,
+    POR_HABITACION,
+    POR_TIPO,
+    POR_FECHA,
+    ESCANEO_PARALELO
+}
@@ -0,0 +1,115 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Clase que reparte un grupo de personas en habitaciones disponibles según la capacidad
+ * de cada tipo. Resuelve una mochila acotada por programación dinámica: para cada tipo
+ * decide cuántas de sus habitaciones más baratas para la estancia usar, cubriendo al menos
+ * a todo el grupo
+ */
+class PlanificadorGrupos {
+    private static final long INFINITO = Long.MAX_VALUE / 4;
+
+    private final IndiceAsignacion indice;
+    private final CalendarioTarifas tarifas;
+
+    /**
+     * Constructor del planificador
+     * @param indice Índice con las habitaciones disponibles ordenadas por precio
+     * @param tarifas Calendario de tarifas con el que se calcula el importe de cada habitación
+     */
+    PlanificadorGrupos(IndiceAsignacion indice, CalendarioTarifas tarifas) {
+        this.indice = indice;
+        this.tarifas = tarifas;
+    }
+
+    /**
+     * Calcula la combinación de habitaciones para un grupo.
+     * El coste es O(tipos · personas · habitaciones usadas por tipo)
+     * @param personas Tamaño del grupo
+     * @param entrada Fecha de entrada
+     * @param salida Fecha de salida
+     * @param criterio Qué se optimiza
+     * @return Habitaciones elegidas o null si no hay capacidad suficiente
+     */
+    List<Habitacion> planificar(int personas, LocalDate entrada, LocalDate salida, CriterioGrupo criterio) {
+        TipoHabitacion[] tipos = TipoHabitacion.values();
+        List<List<Habitacion>> candidatas = new ArrayList<>();
+        long[][] prefijos = new long[tipos.length][];
+
+        // Nunca hacen falta más de ceil(personas / capacidad) habitaciones de un mismo tipo
+        for (int t = 0; t < tipos.length; t++) {
+            int capacidad = tipos[t].getCapacidadMaxima();
+            List<Habitacion> baratas = indice.masBaratas(tipos[t], (personas + capacidad - 1) / capacidad,
+                    entrada, salida);
+            candidatas.add(baratas);
+            prefijos[t] = new long[baratas.size() + 1];
+            for (int k = 0; k < baratas.size(); k++) {
+                prefijos[t][k + 1] = prefijos[t][k] + tarifas.importeCentimos(baratas.get(k), entrada, salida);
+            }
+        }
+
+        // costo[c] y cuantas[c]: mejor forma de alojar al menos a c personas con los tipos vistos
+        long[] costo = new long[personas + 1];
+        int[] cuantas = new int[personas + 1];
+        Arrays.fill(costo, 1, personas + 1, INFINITO);
+        int[][] eleccion = new int[tipos.length][personas + 1];
+
+        for (int t = 0; t < tipos.length; t++) {
+            int capacidad = tipos[t].getCapacidadMaxima();
+            long[] nuevoCosto = new long[personas + 1];
+            int[] nuevasCuantas = new int[personas + 1];
+            for (int c = 0; c <= personas; c++) {
+                nuevoCosto[c] = costo[c];
+                nuevasCuantas[c] = cuantas[c];
+                for (int k = 1; k < prefijos[t].length; k++) {
+                    int resto = Math.max(0, c - k * capacidad);
+                    if (costo[resto] >= INFINITO) {
+                        continue;
+                    }
+                    long candidatoCosto = costo[resto] + prefijos[t][k];
+                    int candidatoCuantas = cuantas[resto] + k;
+                    if (mejor(candidatoCosto, candidatoCuantas, nuevoCosto[c], nuevasCuantas[c], criterio)) {
+                        nuevoCosto[c] = candidatoCosto;
+                        nuevasCuantas[c] = candidatoCuantas;
+                        eleccion[t][c] = k;
+                    }
+                    if (resto == 0) {
+                        break; // Más habitaciones de este tipo solo añaden coste
+                    }
+                }
+            }
+            costo = nuevoCosto;
+            cuantas = nuevasCuantas;
+        }
+
+        if (costo[personas] >= INFINITO) {
+            return null;
+        }
+        List<Habitacion> elegidas = new ArrayList<>();
+        int c = personas;
+        for (int t = tipos.length - 1; t >= 0; t--) {
+            int k = eleccion[t][c];
+            elegidas.addAll(candidatas.get(t).subList(0, k));
+            c = Math.max(0, c - k * tipos[t].getCapacidadMaxima());
+        }
+        return elegidas;
+    }
+
+    /**
+     * Compara dos soluciones según el criterio
+     */
+    private static boolean mejor(long costo, int cuantas, long costoActual, int cuantasActual, CriterioGrupo criterio) {
+        if (costoActual >= INFINITO) {
+            return true;
+        }
+        if (criterio == CriterioGrupo.MAS_BARATO) {
+            return costo < costoActual || (costo == costoActual && cuantas < cuantasActual);
+        }
+        return cuantas < cuantasActual || (cuantas == cuantasActual && costo < costoActual);
+    }
+}
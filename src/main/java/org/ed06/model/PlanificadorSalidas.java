@@ -0,0 +1,102 @@
+package org.ed06.model;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Clase que ordena las reservas por su día de salida en un montículo de mínimos,
+ * para liberar cada día solo las habitaciones cuya estancia termina.
+ * Las entradas no se borran cuando una reserva deja de ser la actual de su habitación:
+ * se descartan al salir del montículo si ya no corresponden
+ */
+class PlanificadorSalidas {
+    private long[] dias = new long[64];
+    private Reserva[] reservas = new Reserva[64];
+    private int tamano;
+    private boolean procesando;
+
+    int pendientes() {
+        return tamano;
+    }
+
+    /**
+     * Añade una reserva para su día de salida
+     * @param reserva Reserva creada o modificada
+     */
+    void programar(Reserva reserva) {
+        if (tamano == dias.length) {
+            dias = Arrays.copyOf(dias, tamano * 2);
+            reservas = Arrays.copyOf(reservas, tamano * 2);
+        }
+        int i = tamano++;
+        long dia = reserva.getFechaFin().toEpochDay();
+        // Sube el hueco hasta su sitio y coloca la entrada al final
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (dias[padre] <= dia) {
+                break;
+            }
+            dias[i] = dias[padre];
+            reservas[i] = reservas[padre];
+            i = padre;
+        }
+        dias[i] = dia;
+        reservas[i] = reserva;
+    }
+
+    /**
+     * Saca todas las reservas cuya salida es como muy tarde hoy. Si la acción vuelve
+     * a llamar a procesar, esa llamada no hace nada
+     * @param hoy Día actual (época)
+     * @param alSalir Acción para cada reserva; devuelve true si liberó la habitación
+     * @return Número de habitaciones liberadas
+     */
+    int procesar(long hoy, Predicate<Reserva> alSalir) {
+        if (procesando) {
+            return 0;
+        }
+        procesando = true;
+        try {
+            int liberadas = 0;
+            while (tamano > 0 && dias[0] <= hoy) {
+                Reserva reserva = reservas[0];
+                quitarPrimera();
+                if (alSalir.test(reserva)) {
+                    liberadas++;
+                }
+            }
+            return liberadas;
+        } finally {
+            procesando = false;
+        }
+    }
+
+    private void quitarPrimera() {
+        int ultima = --tamano;
+        long dia = dias[ultima];
+        Reserva reserva = reservas[ultima];
+        reservas[ultima] = null;
+        if (ultima == 0) {
+            return;
+        }
+        // Baja el hueco de la raíz y coloca en él la última entrada
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= ultima) {
+                break;
+            }
+            if (hijo + 1 < ultima && dias[hijo + 1] < dias[hijo]) {
+                hijo++;
+            }
+            if (dias[hijo] >= dia) {
+                break;
+            }
+            dias[i] = dias[hijo];
+            reservas[i] = reservas[hijo];
+            i = hijo;
+        }
+        dias[i] = dia;
+        reservas[i] = reserva;
+    }
+}
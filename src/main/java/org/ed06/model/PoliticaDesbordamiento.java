@@ -0,0 +1,14 @@
+package org.ed06.model;
+
+/**
+ * Enumeración que indica qué hace el buffer de eventos cuando está lleno
+ * porque algún consumidor no ha terminado de leer
+ */
+public enum PoliticaDesbordamiento {
+    /** Se descarta el evento nuevo y se contabiliza, el productor nunca espera */
+    DESCARTAR,
+    /** Se sobrescribe el evento más antiguo; los consumidores lentos detectan el salto */
+    SOBRESCRIBIR,
+    /** El productor espera a que el consumidor más lento libere una ranura */
+    ESPERAR
+}
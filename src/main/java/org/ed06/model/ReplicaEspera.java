@@ -0,0 +1,253 @@
+package org.ed06.model;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Clase que representa una réplica en espera: recibe por un socket local el registro
+ * de cambios del hotel primario y lo aplica sobre su propio hotel, midiendo el retraso.
+ * Si el primario cae se puede promover y seguir trabajando con el hotel replicado
+ */
+public class ReplicaEspera implements Runnable {
+    private static final int TAMANO_LECTURA = 1 << 20;
+
+    private final Hotel hotel;
+    private final int puerto;
+    private ByteBuffer lectura = ByteBuffer.allocateDirect(TAMANO_LECTURA);
+    private ServerSocketChannel servidor;
+    private volatile SocketChannel canal;
+    private Thread hilo;
+    private volatile boolean activa = true;
+
+    private volatile long aplicados;
+    private volatile long ultimaSecuencia = -1;
+    private volatile long retrasoUltimo;
+    private volatile long retrasoMaximo;
+    private long retrasoTotal;
+    private volatile long divergencias;
+
+    /**
+     * Constructor de la réplica
+     * @param hotel Hotel vacío sobre el que se aplican los cambios
+     * @param puerto Puerto local donde se espera al primario
+     */
+    public ReplicaEspera(Hotel hotel, int puerto) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("El hotel no puede ser nulo");
+        }
+        this.hotel = hotel;
+        this.puerto = puerto;
+    }
+
+    //Getters
+    public long getAplicados() {
+        return aplicados;
+    }
+    public long getUltimaSecuencia() {
+        return ultimaSecuencia;
+    }
+    public long getRetrasoUltimoMillis() {
+        return retrasoUltimo;
+    }
+    public long getRetrasoMaximoMillis() {
+        return retrasoMaximo;
+    }
+    public long getDivergencias() {
+        return divergencias;
+    }
+    public boolean isConectada() {
+        return canal != null && canal.isOpen();
+    }
+
+    /**
+     * Retraso medio entre que el primario publica un cambio y la réplica lo aplica
+     * @return Retraso medio en milisegundos
+     */
+    public synchronized double getRetrasoMedioMillis() {
+        return aplicados == 0 ? 0 : (double) retrasoTotal / aplicados;
+    }
+
+    /**
+     * Abre el puerto local y empieza a esperar al primario en un hilo propio
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public void iniciar() throws IOException {
+        servidor = ServerSocketChannel.open();
+        servidor.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+        hilo = new Thread(this, "replica-espera");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Deja de recibir cambios y entrega el hotel replicado para usarlo como primario
+     * @return Hotel con todos los cambios recibidos
+     * @throws InterruptedException si se interrumpe la espera del hilo
+     */
+    public Hotel promover() throws InterruptedException {
+        activa = false;
+        cerrar();
+        if (hilo != null) {
+            hilo.join();
+        }
+        return hotel;
+    }
+
+    @Override
+    public void run() {
+        try (SocketChannel conexion = servidor.accept()) {
+            canal = conexion;
+            while (activa && conexion.read(lectura) >= 0) {
+                lectura.flip();
+                while (lectura.remaining() >= Integer.BYTES) {
+                    int longitud = lectura.getInt(lectura.position());
+                    if (longitud < ReplicadorPrimario.CABECERA) {
+                        throw new IOException("Trama no válida: el registro de cambios está corrupto");
+                    }
+                    if (lectura.remaining() - Integer.BYTES < longitud) {
+                        break;
+                    }
+                    lectura.getInt();
+                    int fin = lectura.position() + longitud;
+                    aplicar(fin);
+                    lectura.position(fin); // La siguiente trama empieza aquí aunque esta no se aplicara entera
+                }
+                ampliarLectura();
+                lectura.compact();
+            }
+        } catch (IOException e) {
+            // Conexión cerrada por el primario o por la promoción
+        } finally {
+            cerrar();
+        }
+    }
+
+    /**
+     * Si la siguiente trama no cabe en el buffer de lectura, lo cambia por uno donde quepa
+     */
+    private void ampliarLectura() {
+        if (lectura.remaining() < Integer.BYTES) {
+            return;
+        }
+        int necesario = Integer.BYTES + lectura.getInt(lectura.position());
+        if (necesario > lectura.capacity()) {
+            ByteBuffer mayor = ByteBuffer.allocateDirect(necesario);
+            mayor.put(lectura);
+            mayor.flip();
+            lectura = mayor;
+        }
+    }
+
+    /**
+     * Aplica al hotel la trama que empieza en la posición actual del buffer. Si no se puede
+     * aplicar se cuenta como divergencia y el llamante salta al final de la trama
+     * @param fin Posición donde termina la trama
+     */
+    private void aplicar(int fin) {
+        int tipoLeido = lectura.get();
+        long secuencia = lectura.getLong();
+        long marcaTiempo = lectura.getLong();
+        int limite = lectura.limit();
+        try {
+            if (tipoLeido < 0 || tipoLeido >= TipoEvento.values().length) {
+                throw new IllegalStateException("Tipo de cambio desconocido: " + tipoLeido);
+            }
+            lectura.limit(fin); // Una trama mal formada no puede leer de la siguiente
+            aplicar(TipoEvento.values()[tipoLeido]);
+        } catch (RuntimeException e) {
+            divergencias++; // El cambio no se pudo aplicar igual que en el primario
+        } finally {
+            lectura.limit(limite);
+        }
+        synchronized (this) {
+            long retraso = Math.max(0, hotel.getReloj().millis() - marcaTiempo);
+            retrasoUltimo = retraso;
+            retrasoMaximo = Math.max(retrasoMaximo, retraso);
+            retrasoTotal += retraso;
+            ultimaSecuencia = secuencia;
+            aplicados++;
+        }
+    }
+
+    /**
+     * Lee los datos del cambio y lo aplica al hotel. Todos los datos se leen
+     * antes de tocar el hotel, así un cambio mal formado no se aplica a medias
+     * @param tipo Tipo de cambio
+     */
+    private void aplicar(TipoEvento tipo) {
+        switch (tipo) {
+            case HABITACION_REGISTRADA -> {
+                TipoHabitacion tipoHabitacion = TipoHabitacion.values()[lectura.get()];
+                hotel.registrarHabitacion(tipoHabitacion, lectura.getDouble());
+            }
+            case CLIENTE_REGISTRADO -> {
+                String nombre = leerTexto();
+                String email = leerTexto();
+                String dni = leerTexto();
+                hotel.registrarCliente(nombre, email, dni, lectura.get() == 1);
+            }
+            case RESERVA_CREADA -> {
+                int reservaId = lectura.getInt();
+                int habitacion = lectura.getInt();
+                int clienteId = lectura.getInt();
+                LocalDate entrada = LocalDate.ofEpochDay(lectura.getLong());
+                LocalDate salida = LocalDate.ofEpochDay(lectura.getLong());
+                if (hotel.aplicarReservaReplicada(habitacion, clienteId, entrada, salida) != reservaId) {
+                    divergencias++;
+                }
+            }
+            case HABITACION_LIBERADA -> hotel.liberarHabitacion(lectura.getInt());
+            case RESERVA_MODIFICADA -> {
+                int reservaId = lectura.getInt();
+                int habitacion = lectura.getInt();
+                LocalDate entrada = LocalDate.ofEpochDay(lectura.getLong());
+                LocalDate salida = LocalDate.ofEpochDay(lectura.getLong());
+                if (hotel.aplicarModificacion(reservaId, habitacion, entrada, salida) != habitacion) {
+                    divergencias++;
+                }
+            }
+            case TARIFA_CAMBIADA -> {
+                boolean deHabitacion = lectura.get() == 1;
+                int destino = lectura.getInt();
+                LocalDate desde = LocalDate.ofEpochDay(lectura.getLong());
+                int noches = lectura.getInt();
+                if (noches < 0 || noches > lectura.remaining() / Double.BYTES) {
+                    throw new IllegalStateException("Número de noches no válido: " + noches);
+                }
+                double[] precios = new double[noches];
+                lectura.asDoubleBuffer().get(precios);
+                lectura.position(lectura.position() + noches * Double.BYTES);
+                if (deHabitacion) {
+                    hotel.fijarTarifas(hotel.obtenerHabitacion(destino), desde, precios);
+                } else {
+                    hotel.fijarTarifas(TipoHabitacion.values()[destino], desde, precios);
+                }
+            }
+        }
+    }
+
+    private String leerTexto() {
+        int longitud = lectura.getInt();
+        if (longitud < 0 || longitud > lectura.remaining()) {
+            throw new IllegalStateException("Longitud de texto no válida: " + longitud);
+        }
+        byte[] bytes = new byte[longitud];
+        lectura.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void cerrar() {
+        try {
+            if (canal != null) canal.close();
+            if (servidor != null) servidor.close();
+        } catch (IOException e) {
+            // Ya estaba cerrado
+        }
+    }
+}
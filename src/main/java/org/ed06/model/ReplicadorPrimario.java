@@ -0,0 +1,208 @@
+package org.ed06.model;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Clase que envía a una réplica en espera el registro ordenado de cambios del hotel.
+ * Es un consumidor más del buffer de eventos: codifica cada evento en un lote y lo
+ * envía por un SocketChannel al terminar cada lote, fuera del hilo que reserva.
+ * Debe iniciarse antes de modificar el hotel para que ambos partan del mismo estado
+ */
+public class ReplicadorPrimario implements ManejadorEventos {
+    private static final int TAMANO_LOTE = 1 << 18;
+    static final int CABECERA = Byte.BYTES + 2 * Long.BYTES; // Tipo, secuencia y marca de tiempo
+
+    private final BufferEventos buffer;
+    private final InetSocketAddress destino;
+    private ByteBuffer lote = ByteBuffer.allocateDirect(TAMANO_LOTE);
+    private SocketChannel canal;
+    private ConsumidorEventos consumidor;
+    private Thread hilo;
+    private volatile long enviados;
+    private volatile IOException error;
+
+    /**
+     * Constructor del replicador
+     * @param buffer Buffer de eventos del hotel primario
+     * @param destino Dirección de la réplica en espera
+     * @throws IllegalArgumentException si el buffer puede perder eventos
+     */
+    public ReplicadorPrimario(BufferEventos buffer, InetSocketAddress destino) {
+        if (buffer == null || destino == null) {
+            throw new IllegalArgumentException("El buffer y el destino no pueden ser nulos");
+        }
+        if (buffer.getPolitica() != PoliticaDesbordamiento.ESPERAR) {
+            throw new IllegalArgumentException("La replicación necesita un buffer con política ESPERAR");
+        }
+        this.buffer = buffer;
+        this.destino = destino;
+    }
+
+    //Getters
+    public long getEnviados() {
+        return enviados;
+    }
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Conecta con la réplica y empieza a enviar los cambios en un hilo propio
+     * @throws IOException si no se puede conectar con la réplica
+     */
+    public void iniciar() throws IOException {
+        canal = SocketChannel.open(destino);
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        consumidor = buffer.crearConsumidor(this, EstrategiaEspera.cediendo());
+        hilo = new Thread(consumidor, "replicacion-primario");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Envía lo pendiente y cierra la conexión con la réplica
+     * @throws InterruptedException si se interrumpe la espera del hilo
+     */
+    public void detener() throws InterruptedException {
+        if (consumidor == null) {
+            return;
+        }
+        while (error == null && consumidor.getSecuencia() < buffer.getCursor()) {
+            Thread.sleep(1);
+        }
+        buffer.eliminarConsumidor(consumidor);
+        hilo.join();
+        try {
+            canal.close();
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    @Override
+    public void alEvento(EventoHotel evento, long secuencia, boolean finDeLote) {
+        if (error != null) {
+            return;
+        }
+        try {
+            codificar(evento, secuencia);
+            if (finDeLote) {
+                enviar();
+            }
+        } catch (IOException e) {
+            // Sin réplica no se puede seguir: se deja de frenar al hotel
+            error = e;
+            buffer.eliminarConsumidor(consumidor);
+        }
+    }
+
+    /**
+     * Envía lo acumulado en el lote y lo deja vacío
+     * @throws IOException si falla la conexión con la réplica
+     */
+    private void enviar() throws IOException {
+        lote.flip();
+        while (lote.hasRemaining()) {
+            canal.write(lote);
+        }
+        lote.clear();
+    }
+
+    /**
+     * Codifica un evento como trama: longitud, tipo, secuencia, marca de tiempo y datos.
+     * Antes de escribir se calcula el tamaño de la trama: si no cabe en lo que queda del lote
+     * se envía el lote, y si no cabe en un lote vacío se usa uno mayor
+     * @throws IOException si falla el envío del lote
+     */
+    private void codificar(EventoHotel evento, long secuencia) throws IOException {
+        byte[] nombre = null, email = null, dni = null;
+        int datos = switch (evento.getTipo()) {
+            case HABITACION_REGISTRADA -> Byte.BYTES + Double.BYTES;
+            case CLIENTE_REGISTRADO -> {
+                // Los datos copiados al publicar, no los del cliente, que puede haber cambiado
+                nombre = evento.getNombreCliente().getBytes(StandardCharsets.UTF_8);
+                email = evento.getEmailCliente().getBytes(StandardCharsets.UTF_8);
+                dni = evento.getDniCliente().getBytes(StandardCharsets.UTF_8);
+                yield 3 * Integer.BYTES + nombre.length + email.length + dni.length + Byte.BYTES;
+            }
+            case RESERVA_CREADA -> 3 * Integer.BYTES + 2 * Long.BYTES;
+            case RESERVA_MODIFICADA -> 2 * Integer.BYTES + 2 * Long.BYTES;
+            case HABITACION_LIBERADA -> Integer.BYTES;
+            case TARIFA_CAMBIADA -> Byte.BYTES + 2 * Integer.BYTES + Long.BYTES
+                    + evento.getTarifa().getNoches() * Double.BYTES;
+        };
+        reservarEspacio(Integer.BYTES + CABECERA + datos);
+
+        lote.putInt(CABECERA + datos);
+        lote.put((byte) evento.getTipo().ordinal());
+        lote.putLong(secuencia);
+        lote.putLong(evento.getMarcaTiempo());
+        switch (evento.getTipo()) {
+            case HABITACION_REGISTRADA -> {
+                lote.put((byte) evento.getHabitacion().getTipo().ordinal());
+                lote.putDouble(evento.getHabitacion().getPrecioBase());
+            }
+            case CLIENTE_REGISTRADO -> {
+                escribirTexto(nombre);
+                escribirTexto(email);
+                escribirTexto(dni);
+                lote.put((byte) (evento.isClienteVip() ? 1 : 0));
+            }
+            case RESERVA_CREADA -> {
+                Reserva reserva = evento.getReserva();
+                lote.putInt(reserva.getId());
+                lote.putInt(reserva.getHabitacion().getNumero());
+                lote.putInt(reserva.getCliente().getId());
+                lote.putLong(reserva.getFechaInicio().toEpochDay());
+                lote.putLong(reserva.getFechaFin().toEpochDay());
+            }
+            case RESERVA_MODIFICADA -> {
+                Reserva reserva = evento.getReserva();
+                lote.putInt(reserva.getId());
+                lote.putInt(reserva.getHabitacion().getNumero());
+                lote.putLong(reserva.getFechaInicio().toEpochDay());
+                lote.putLong(reserva.getFechaFin().toEpochDay());
+            }
+            case HABITACION_LIBERADA -> lote.putInt(evento.getHabitacion().getNumero());
+            case TARIFA_CAMBIADA -> {
+                CambioTarifa tarifa = evento.getTarifa();
+                lote.put((byte) (tarifa.esDeHabitacion() ? 1 : 0));
+                lote.putInt(tarifa.esDeHabitacion() ? tarifa.getHabitacion().getNumero() : tarifa.getTipo().ordinal());
+                lote.putLong(tarifa.getDesde().toEpochDay());
+                lote.putInt(tarifa.getNoches());
+                for (int i = 0; i < tarifa.getNoches(); i++) {
+                    lote.putDouble(tarifa.getPrecioNoche(i));
+                }
+            }
+        }
+        enviados++;
+    }
+
+    /**
+     * Deja sitio en el lote para una trama
+     * @param tamano Bytes de la trama con su longitud
+     * @throws IOException si falla el envío del lote
+     */
+    private void reservarEspacio(int tamano) throws IOException {
+        if (lote.remaining() >= tamano) {
+            return;
+        }
+        enviar();
+        if (lote.capacity() < tamano) {
+            lote = ByteBuffer.allocateDirect(Math.max(tamano, lote.capacity() * 2));
+        }
+    }
+
+    /**
+     * Escribe un texto con su longitud en bytes como entero, así no se recorta ningún texto
+     */
+    private void escribirTexto(byte[] bytes) {
+        lote.putInt(bytes.length);
+        lote.put(bytes);
+    }
+}
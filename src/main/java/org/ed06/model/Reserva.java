@@ -31,6 +31,27 @@ public class Reserva {
         this.precioTotal = calcularPrecioFinal();
     }
 
+    /**
+     * Constructor para crear una reserva con el importe de sus noches ya calculado
+     * según el calendario de tarifas
+     * @param id ID única de la reserva
+     * @param habitacion Habitación reservada
+     * @param cliente Cliente que relaiza la reserva
+     * @param fechaInicio Fecha de inicio de la reserva
+     * @param fechaFin Fecha de fin de la reserva
+     * @param importeNoches Suma del precio de cada noche, sin descuentos
+     */
+    Reserva(int id, Habitacion habitacion, Cliente cliente, LocalDate fechaInicio, LocalDate fechaFin,
+            double importeNoches) {
+        this.id = id;
+        this.habitacion = habitacion;
+        this.cliente = cliente;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.precioTotal = aplicarDescuentos(importeNoches, (int) ChronoUnit.DAYS.between(fechaInicio, fechaFin),
+                cliente.isEsVip());
+    }
+
     //Getters
     public int getId() {
         return id;
@@ -57,9 +78,18 @@ public class Reserva {
      */
     private double calcularPrecioFinal() {
         int dias = (int) ChronoUnit.DAYS.between(fechaInicio, fechaFin);
-        double precio = habitacion.getPrecioBase() * dias;
+        return aplicarDescuentos(habitacion.getPrecioBase() * dias, dias, cliente.isEsVip());
+    }
 
-        if (cliente.isEsVip()) {
+    /**
+     * Aplica los descuentos por VIP y por estadía larga a un importe
+     * @param precio Importe sin descuentos
+     * @param dias Noches de la estancia
+     * @param vip Indica si el cliente es VIP
+     * @return Importe con los descuentos aplicados
+     */
+    static double aplicarDescuentos(double precio, int dias, boolean vip) {
+        if (vip) {
             precio *= 0.90; // Descuento 10% VIP
         }
 
@@ -0,0 +1,48 @@
+package org.ed06.model;
+
+import java.util.List;
+
+/**
+ * Clase que representa el resultado de una reserva de grupo: las reservas creadas
+ * o el código de error si no se pudo reservar
+ */
+public class ReservaGrupo {
+    private final int codigo;
+    private final List<Reserva> reservas;
+    private final double precioTotal;
+
+    /**
+     * Constructor del resultado
+     * @param codigo 0 si se reservó o un código de error negativo
+     * @param reservas Reservas creadas, vacía si hubo error
+     * @param precioTotal Suma del precio de las reservas
+     */
+    ReservaGrupo(int codigo, List<Reserva> reservas, double precioTotal) {
+        this.codigo = codigo;
+        this.reservas = List.copyOf(reservas);
+        this.precioTotal = precioTotal;
+    }
+
+    /**
+     * Crea un resultado de error
+     * @param codigo Código de error negativo
+     * @return Resultado sin reservas
+     */
+    static ReservaGrupo error(int codigo) {
+        return new ReservaGrupo(codigo, List.of(), 0);
+    }
+
+    //Getters
+    public int getCodigo() {
+        return codigo;
+    }
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+    public double getPrecioTotal() {
+        return precioTotal;
+    }
+    public boolean isConfirmada() {
+        return codigo == 0;
+    }
+}
@@ -0,0 +1,191 @@
+package org.ed06.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Clase que implementa una rueda de temporizadores jerárquica.
+ * Hay cuatro niveles de 64 ranuras; cada ranura de un nivel abarca una vuelta
+ * completa del nivel inferior. Programar y cancelar cuesta O(1) porque los nodos
+ * se enlazan directamente en la lista de su ranura, y al avanzar el tiempo las
+ * ranuras de los niveles superiores bajan a los inferiores cuando les toca.
+ * No usa hilos: el tiempo avanza cuando se llama a avanzar()
+ */
+class RuedaTemporizadores {
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+    private static final long ALCANCE = 1L << (BITS * NIVELES); // Ticks que cubre la rueda
+
+    /**
+     * Nodo enlazable en la rueda. Las clases que se programan heredan de él,
+     * así programar un vencimiento no reserva memoria aparte
+     */
+    abstract static class Nodo {
+        long vencimiento;
+        Nodo anterior;
+        Nodo siguiente;
+
+        boolean isProgramado() {
+            return siguiente != null;
+        }
+    }
+
+    private static final class Cabeza extends Nodo {
+    }
+
+    private final long tickMillis;
+    private final Nodo[][] ranuras = new Nodo[NIVELES][RANURAS];
+    private long actual;
+    private int tamano;
+    private boolean avanzando;
+
+    /**
+     * Constructor de la rueda
+     * @param tickMillis Resolución en milisegundos
+     * @param inicioMillis Instante inicial
+     */
+    RuedaTemporizadores(long tickMillis, long inicioMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("La resolución debe ser mayor que cero");
+        }
+        this.tickMillis = tickMillis;
+        this.actual = inicioMillis / tickMillis;
+        for (Nodo[] nivel : ranuras) {
+            for (int i = 0; i < RANURAS; i++) {
+                Nodo cabeza = new Cabeza();
+                cabeza.anterior = cabeza;
+                cabeza.siguiente = cabeza;
+                nivel[i] = cabeza;
+            }
+        }
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Programa un nodo para que venza en un instante. Si ya estaba programado se mueve
+     * @param nodo Nodo a programar
+     * @param vencimiento Instante de vencimiento en milisegundos
+     */
+    void programar(Nodo nodo, long vencimiento) {
+        if (nodo.isProgramado()) {
+            cancelar(nodo);
+        }
+        nodo.vencimiento = vencimiento;
+        colocar(nodo, actual + 1);
+        tamano++;
+    }
+
+    /**
+     * Quita un nodo de la rueda sin que venza
+     * @param nodo Nodo a cancelar
+     */
+    void cancelar(Nodo nodo) {
+        if (nodo.isProgramado()) {
+            desenlazar(nodo);
+            tamano--;
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta un instante avisando de cada nodo vencido.
+     * Si la acción vuelve a llamar a avanzar, esa llamada no hace nada
+     * @param ahoraMillis Instante actual en milisegundos
+     * @param alVencer Acción para cada nodo vencido, ya fuera de la rueda
+     * @return Número de nodos vencidos
+     */
+    int avanzar(long ahoraMillis, Consumer<Nodo> alVencer) {
+        if (avanzando) {
+            return 0;
+        }
+        avanzando = true;
+        try {
+            return avanzarHasta(ahoraMillis / tickMillis, alVencer);
+        } finally {
+            avanzando = false;
+        }
+    }
+
+    private int avanzarHasta(long objetivo, Consumer<Nodo> alVencer) {
+        int vencidos = 0;
+        while (actual < objetivo) {
+            if (tamano == 0) {
+                actual = objetivo;
+                break;
+            }
+            actual++;
+            // Al completar una vuelta de un nivel baja la ranura que toca del nivel superior
+            int nivel = 1;
+            while (nivel < NIVELES && (actual & ((1L << (BITS * nivel)) - 1)) == 0) {
+                nivel++;
+            }
+            for (int l = nivel - 1; l >= 1; l--) {
+                Nodo nodo = separar(ranuras[l][(int) (actual >>> (BITS * l)) & MASCARA]);
+                while (nodo != null) {
+                    Nodo siguiente = nodo.siguiente;
+                    nodo.siguiente = null;
+                    colocar(nodo, actual); // La ranura 0 de este tick aún no se ha vaciado
+                    nodo = siguiente;
+                }
+            }
+            // Se sacan de uno en uno para que la acción pueda cancelar otros nodos de la ranura
+            Nodo cabeza = ranuras[0][(int) actual & MASCARA];
+            while (cabeza.siguiente != cabeza) {
+                Nodo nodo = cabeza.siguiente;
+                desenlazar(nodo);
+                tamano--;
+                vencidos++;
+                alVencer.accept(nodo);
+            }
+        }
+        return vencidos;
+    }
+
+    /**
+     * Enlaza el nodo en el nivel que corresponde a lo que falta para su vencimiento
+     * @param nodo Nodo a enlazar
+     * @param minimo Primer tick en el que puede vencer
+     */
+    private void colocar(Nodo nodo, long minimo) {
+        long tick = Math.max((nodo.vencimiento + tickMillis - 1) / tickMillis, minimo);
+        long delta = tick - actual;
+        if (delta >= ALCANCE) {
+            // Fuera de alcance: se deja en la última ranura y se recoloca al bajar
+            tick = actual + ALCANCE - 1;
+            delta = ALCANCE - 1;
+        }
+        int nivel = 0;
+        while (delta >= 1L << (BITS * (nivel + 1))) {
+            nivel++;
+        }
+        Nodo cabeza = ranuras[nivel][(int) (tick >>> (BITS * nivel)) & MASCARA];
+        nodo.anterior = cabeza.anterior;
+        nodo.siguiente = cabeza;
+        cabeza.anterior.siguiente = nodo;
+        cabeza.anterior = nodo;
+    }
+
+    private static void desenlazar(Nodo nodo) {
+        nodo.anterior.siguiente = nodo.siguiente;
+        nodo.siguiente.anterior = nodo.anterior;
+        nodo.anterior = null;
+        nodo.siguiente = null;
+    }
+
+    /**
+     * Vacía una ranura y devuelve sus nodos como lista simple terminada en null
+     */
+    private static Nodo separar(Nodo cabeza) {
+        if (cabeza.siguiente == cabeza) {
+            return null;
+        }
+        Nodo primero = cabeza.siguiente;
+        cabeza.anterior.siguiente = null;
+        cabeza.anterior = cabeza;
+        cabeza.siguiente = cabeza;
+        return primero;
+    }
+}
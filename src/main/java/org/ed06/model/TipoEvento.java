@@ -0,0 +1,14 @@
+package org.ed06.model;
+
+/**
+ * Enumeración con los tipos de cambio que el hotel publica
+ * en su flujo de eventos
+ */
+public enum TipoEvento {
+    HABITACION_REGISTRADA,
+    CLIENTE_REGISTRADO,
+    RESERVA_CREADA,
+    HABITACION_LIBERADA,
+    RESERVA_MODIFICADA,
+    TARIFA_CAMBIADA
+}
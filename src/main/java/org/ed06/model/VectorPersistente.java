@@ -0,0 +1,144 @@
+package org.ed06.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Lista inmutable y persistente: añadir o cambiar un elemento devuelve un vector nuevo
+ * que comparte casi toda la estructura con el anterior. Internamente es un árbol
+ * de 32 ramas con una cola, así que cada cambio solo copia O(log32 n) nodos
+ * @param <T> Tipo de los elementos
+ */
+final class VectorPersistente<T> extends AbstractList<T> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int ANCHO = 1 << BITS;
+    private static final int MASCARA = ANCHO - 1;
+    private static final VectorPersistente<?> VACIO =
+            new VectorPersistente<>(0, BITS, new Object[ANCHO], new Object[0]);
+
+    private final int tamano;
+    private final int desplazamiento;
+    private final Object[] raiz;
+    private final Object[] cola;
+
+    private VectorPersistente(int tamano, int desplazamiento, Object[] raiz, Object[] cola) {
+        this.tamano = tamano;
+        this.desplazamiento = desplazamiento;
+        this.raiz = raiz;
+        this.cola = cola;
+    }
+
+    /**
+     * Obtiene el vector vacío
+     * @return Vector sin elementos
+     */
+    @SuppressWarnings("unchecked")
+    static <T> VectorPersistente<T> vacio() {
+        return (VectorPersistente<T>) VACIO;
+    }
+
+    @Override
+    public int size() {
+        return tamano;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera del vector de tamaño " + tamano);
+        }
+        return (T) nodoDe(indice)[indice & MASCARA];
+    }
+
+    /**
+     * Devuelve un vector nuevo con el elemento añadido al final
+     * @param valor Elemento a añadir
+     * @return Vector con un elemento más
+     */
+    VectorPersistente<T> agregar(T valor) {
+        if (tamano - inicioCola() < ANCHO) {
+            Object[] nuevaCola = Arrays.copyOf(cola, cola.length + 1);
+            nuevaCola[cola.length] = valor;
+            return new VectorPersistente<>(tamano + 1, desplazamiento, raiz, nuevaCola);
+        }
+        // La cola está llena: pasa al árbol y se empieza una nueva
+        Object[] nuevaRaiz;
+        int nuevoDesplazamiento = desplazamiento;
+        if ((tamano >>> BITS) > (1 << desplazamiento)) {
+            nuevaRaiz = new Object[ANCHO];
+            nuevaRaiz[0] = raiz;
+            nuevaRaiz[1] = nuevoCamino(desplazamiento, cola);
+            nuevoDesplazamiento += BITS;
+        } else {
+            nuevaRaiz = insertarCola(desplazamiento, raiz, cola);
+        }
+        return new VectorPersistente<>(tamano + 1, nuevoDesplazamiento, nuevaRaiz, new Object[]{valor});
+    }
+
+    /**
+     * Devuelve un vector nuevo con el elemento de una posición sustituido
+     * @param indice Posición a cambiar
+     * @param valor Nuevo elemento
+     * @return Vector con el cambio aplicado
+     */
+    VectorPersistente<T> con(int indice, T valor) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera del vector de tamaño " + tamano);
+        }
+        if (indice >= inicioCola()) {
+            Object[] nuevaCola = cola.clone();
+            nuevaCola[indice & MASCARA] = valor;
+            return new VectorPersistente<>(tamano, desplazamiento, raiz, nuevaCola);
+        }
+        return new VectorPersistente<>(tamano, desplazamiento, asignar(desplazamiento, raiz, indice, valor), cola);
+    }
+
+    private int inicioCola() {
+        return tamano < ANCHO ? 0 : ((tamano - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] nodoDe(int indice) {
+        if (indice >= inicioCola()) {
+            return cola;
+        }
+        Object[] nodo = raiz;
+        for (int nivel = desplazamiento; nivel > 0; nivel -= BITS) {
+            nodo = (Object[]) nodo[(indice >>> nivel) & MASCARA];
+        }
+        return nodo;
+    }
+
+    private Object[] insertarCola(int nivel, Object[] padre, Object[] nodoCola) {
+        int sub = ((tamano - 1) >>> nivel) & MASCARA;
+        Object[] copia = padre.clone();
+        if (nivel == BITS) {
+            copia[sub] = nodoCola;
+        } else {
+            Object[] hijo = (Object[]) padre[sub];
+            copia[sub] = hijo != null ? insertarCola(nivel - BITS, hijo, nodoCola) : nuevoCamino(nivel - BITS, nodoCola);
+        }
+        return copia;
+    }
+
+    private static Object[] nuevoCamino(int nivel, Object[] nodo) {
+        if (nivel == 0) {
+            return nodo;
+        }
+        Object[] camino = new Object[ANCHO];
+        camino[0] = nuevoCamino(nivel - BITS, nodo);
+        return camino;
+    }
+
+    private static Object[] asignar(int nivel, Object[] nodo, int indice, Object valor) {
+        Object[] copia = nodo.clone();
+        if (nivel == 0) {
+            copia[indice & MASCARA] = valor;
+        } else {
+            int sub = (indice >>> nivel) & MASCARA;
+            copia[sub] = asignar(nivel - BITS, (Object[]) nodo[sub], indice, valor);
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,94 @@
+package org.ed06.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Clase que mantiene de forma incremental las habitaciones disponibles de un tipo.
+ * Cada cambio incrementa la versión; el listado se reconstruye solo cuando la versión
+ * ha cambiado, así repetirlo sin cambios no cuesta nada
+ */
+public class VistaDisponibilidad {
+    private final TipoHabitacion tipo;
+    private final TreeMap<Integer, Habitacion> disponibles = new TreeMap<>();
+    private volatile long version;
+    private volatile int cantidad;
+    private volatile List<Habitacion> cache = List.of();
+    private volatile long versionCache;
+
+    /**
+     * Constructor de la vista
+     * @param tipo Tipo de habitación de la vista
+     */
+    VistaDisponibilidad(TipoHabitacion tipo) {
+        this.tipo = tipo;
+    }
+
+    //Getters
+    public TipoHabitacion getTipo() {
+        return tipo;
+    }
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Indica si algo ha cambiado desde una versión anterior
+     * @param versionAnterior Versión que tenía el llamante
+     * @return true si la vista ha cambiado
+     */
+    public boolean haCambiadoDesde(long versionAnterior) {
+        return version != versionAnterior;
+    }
+
+    /**
+     * Número de habitaciones disponibles de este tipo
+     * @return Habitaciones disponibles
+     */
+    public int contar() {
+        return cantidad;
+    }
+
+    /**
+     * Lista las habitaciones disponibles ordenadas por número
+     * @return Lista inmutable, la misma instancia mientras no haya cambios
+     */
+    public List<Habitacion> listar() {
+        // Se lee primero la versión de la caché: la lista leída después es al menos igual de nueva
+        if (versionCache == version) {
+            return cache;
+        }
+        synchronized (this) {
+            if (versionCache != version) {
+                cache = List.copyOf(disponibles.values());
+                versionCache = version;
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Obtiene la habitación disponible con el número más bajo
+     * @return La habitación o null si no hay ninguna
+     */
+    synchronized Habitacion primera() {
+        Map.Entry<Integer, Habitacion> entrada = disponibles.firstEntry();
+        return entrada == null ? null : entrada.getValue();
+    }
+
+    /**
+     * Actualiza la vista con el nuevo estado de una habitación
+     * @param habitacion Habitación que ha cambiado
+     * @param disponible Nuevo estado
+     */
+    synchronized void actualizar(Habitacion habitacion, boolean disponible) {
+        boolean cambio = disponible
+                ? disponibles.put(habitacion.getNumero(), habitacion) == null
+                : disponibles.remove(habitacion.getNumero()) != null;
+        if (cambio) {
+            cantidad = disponibles.size();
+            version++;
+        }
+    }
+}